@@ -0,0 +1,154 @@
+package application;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.Arrays;
+import model.CrossingMessage;
+import model.LeaderboardMessage;
+import model.Message;
+import model.MessageBatch;
+import model.MessageVisitor;
+import model.RaceHeader;
+import model.RacerRegistry;
+import model.TelemetryMessage;
+
+/**
+ * This program works out who led and who finished a replayed race: how often the
+ * lead changed hands, who led the longest, and the racers in the order they
+ * finished with their finishing times.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public final class AnalyticsSink implements ReplaySink, MessageVisitor {
+
+    /** How many finishers the report lists. */
+    private static final int FINISHERS_SHOWN = 10;
+
+    /** Milliseconds in one second. */
+    private static final double MILLIS_PER_SEC = 1000.0;
+
+    /** The racers of the race, by racer index. */
+    private RacerRegistry myRacers = new RacerRegistry();
+
+    /** Milliseconds each racer led for, by racer index. */
+    private int[] myLeadTime = new int[0];
+
+    /** The racer index of each finisher, in the order they finished. */
+    private int[] myFinishers = new int[0];
+
+    /** The time each racer first finished, by racer index, or -1 if it has not. */
+    private int[] myFinishTime = new int[0];
+
+    /** The number of racers which finished. */
+    private int myFinishCount;
+
+    /** The racer index of the racer in the lead, or NONE before the first leaderboard. */
+    private int myLeader;
+
+    /** The time the leader took the lead. */
+    private int myLeadSince;
+
+    /** The number of times the lead changed hands. */
+    private int myLeadChanges;
+
+    /** The length of the race in milliseconds. */
+    private int myRaceTime;
+
+    @Override
+    public void raceStarted(final File theRaceFile, final RaceHeader theHeader,
+                            final RacerRegistry theRacers) {
+        myRacers = theRacers;
+        myLeadTime = new int[theRacers.size()];
+        myFinishers = new int[theRacers.size()];
+        myFinishTime = new int[theRacers.size()];
+        Arrays.fill(myFinishTime, -1);
+        myFinishCount = 0;
+        myLeader = RacerRegistry.NONE;
+        myLeadSince = 0;
+        myLeadChanges = 0;
+        myRaceTime = theHeader.getTime();
+    }
+
+    @Override
+    public void messagesSent(final MessageBatch theMessages) {
+        for (final Message m : theMessages) {
+            m.accept(this);
+        }
+    }
+
+    @Override
+    public void visitTelemetry(final TelemetryMessage theMessage) {
+        // telemetry does not change who leads or finishes
+    }
+
+    @Override
+    public void visitCrossing(final CrossingMessage theMessage) {
+        final int racer = myRacers.indexOf(theMessage.getID());
+        if (theMessage.isFinished() && racer != RacerRegistry.NONE
+            && myFinishTime[racer] < 0) {
+            myFinishTime[racer] = theMessage.getTime();
+            myFinishers[myFinishCount] = racer;
+            myFinishCount++;
+        }
+    }
+
+    @Override
+    public void visitLeaderboard(final LeaderboardMessage theMessage) {
+        final int leader = theMessage.getOrderSize() > 0
+                        ? myRacers.indexOf(theMessage.getOrderRacerID(0)) : RacerRegistry.NONE;
+        if (leader != RacerRegistry.NONE && leader != myLeader) {
+            if (myLeader != RacerRegistry.NONE) {
+                addLeadTime(theMessage.getTime());
+                myLeadChanges++;
+            }
+            myLeader = leader;
+            myLeadSince = theMessage.getTime();
+        }
+    }
+
+    @Override
+    public void raceFinished(final PrintStream theReport) {
+        if (myLeader != RacerRegistry.NONE) {
+            addLeadTime(myRaceTime);
+        }
+        int longest = RacerRegistry.NONE;
+        for (int i = 0; i < myLeadTime.length; i++) {
+            if (myLeadTime[i] > 0
+                && (longest == RacerRegistry.NONE || myLeadTime[i] > myLeadTime[longest])) {
+                longest = i;
+            }
+        }
+        theReport.println("  analytics: " + myLeadChanges + " lead changes, "
+                          + myFinishCount + " of " + myRacers.size()
+                          + " racers finished");
+        if (longest != RacerRegistry.NONE) {
+            theReport.println("    led longest: " + myRacers.get(longest).getName()
+                              + " for " + seconds(myLeadTime[longest]));
+        }
+        for (int place = 0; place < Math.min(myFinishCount, FINISHERS_SHOWN); place++) {
+            final int racer = myFinishers[place];
+            theReport.println("    " + (place + 1) + ". " + myRacers.get(racer).getName()
+                              + " " + seconds(myFinishTime[racer]));
+        }
+    }
+
+    /**
+     * Adds the time the leader has led for up to a time.
+     *
+     * @param theTime the time the leader led until
+     */
+    private void addLeadTime(final int theTime) {
+        myLeadTime[myLeader] += theTime - myLeadSince;
+    }
+
+    /**
+     * Returns race milliseconds as seconds.
+     *
+     * @param theMillis the race milliseconds
+     * @return the seconds with a unit
+     */
+    private static String seconds(final int theMillis) {
+        return String.format("%.3f s", theMillis / MILLIS_PER_SEC);
+    }
+}
@@ -0,0 +1,66 @@
+package application;
+
+import java.io.File;
+import java.io.PrintStream;
+import model.CrossingMessage;
+import model.LeaderboardMessage;
+import model.Message;
+import model.MessageBatch;
+import model.MessageVisitor;
+import model.RaceHeader;
+import model.RacerRegistry;
+import model.TelemetryMessage;
+
+/**
+ * This program counts the messages of each type in a replayed race.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public final class CountingSink implements ReplaySink, MessageVisitor {
+
+    /** The number of telemetry messages. */
+    private long myTelemetry;
+
+    /** The number of line crossing messages. */
+    private long myCrossings;
+
+    /** The number of leaderboard messages. */
+    private long myLeaderboards;
+
+    @Override
+    public void raceStarted(final File theRaceFile, final RaceHeader theHeader,
+                            final RacerRegistry theRacers) {
+        myTelemetry = 0;
+        myCrossings = 0;
+        myLeaderboards = 0;
+    }
+
+    @Override
+    public void messagesSent(final MessageBatch theMessages) {
+        for (final Message m : theMessages) {
+            m.accept(this);
+        }
+    }
+
+    @Override
+    public void visitTelemetry(final TelemetryMessage theMessage) {
+        myTelemetry++;
+    }
+
+    @Override
+    public void visitCrossing(final CrossingMessage theMessage) {
+        myCrossings++;
+    }
+
+    @Override
+    public void visitLeaderboard(final LeaderboardMessage theMessage) {
+        myLeaderboards++;
+    }
+
+    @Override
+    public void raceFinished(final PrintStream theReport) {
+        theReport.println("  count: " + myTelemetry + " telemetry, " + myCrossings
+                          + " crossings, " + myLeaderboards + " leaderboards");
+    }
+}
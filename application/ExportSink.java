@@ -0,0 +1,92 @@
+package application;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import model.Message;
+import model.MessageBatch;
+import model.RaceHeader;
+import model.RacerRegistry;
+
+/**
+ * This program writes every message of a replayed race to a text file, one message
+ * per line as the data output stream shows it. Each race is written to a file in the
+ * export directory named after the race file, with ".txt" added.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public final class ExportSink implements ReplaySink {
+
+    /** The directory races are written to. */
+    private final File myDirectory;
+
+    /** The file the current race is written to. */
+    private File myFile;
+
+    /** Writes the current race, or null between races. */
+    private BufferedWriter myWriter;
+
+    /** The number of messages written for the current race. */
+    private long myCount;
+
+    /**
+     * Constructs an ExportSink writing to a directory.
+     *
+     * @param theDirectory the directory races are written to
+     */
+    public ExportSink(final File theDirectory) {
+        myDirectory = theDirectory;
+    }
+
+    @Override
+    public void raceStarted(final File theRaceFile, final RaceHeader theHeader,
+                            final RacerRegistry theRacers) throws IOException {
+        closeWriter();
+        Files.createDirectories(myDirectory.toPath());
+        myFile = new File(myDirectory, theRaceFile.getName() + ".txt");
+        myWriter = Files.newBufferedWriter(myFile.toPath(), StandardCharsets.UTF_8);
+        myCount = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException if the messages could not be written
+     */
+    @Override
+    public void messagesSent(final MessageBatch theMessages) {
+        try {
+            for (final Message m : theMessages) {
+                myWriter.write(m.toString());
+                myWriter.newLine();
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        myCount += theMessages.size();
+    }
+
+    @Override
+    public void raceFinished(final PrintStream theReport) throws IOException {
+        closeWriter();
+        theReport.println("  export: " + myCount + " messages to " + myFile);
+    }
+
+    /**
+     * Closes the writer of the current race, if any.
+     *
+     * @throws IOException if the race could not be written
+     */
+    private void closeWriter() throws IOException {
+        if (myWriter != null) {
+            final BufferedWriter writer = myWriter;
+            myWriter = null;
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package application;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import model.MessageBatch;
+import model.RaceEventBus;
+import model.RaceHeader;
+import model.RaceModel;
+import model.RacerRegistry;
+
+/**
+ * This program replays races without a user interface, as fast as the machine allows.
+ * Each race file is loaded into a race model and played from start to end through the
+ * model's usual message delivery, which sends every message to the chosen sinks.
+ * A report on each race is printed with the messages replayed per second and the time
+ * spent loading, replaying and reporting. Runs with java.awt.headless=true.
+ *
+ * <pre>
+ * java -Djava.awt.headless=true application.HeadlessReplay
+ *      [-count] [-analytics] [-export DIRECTORY] RACE_FILE...
+ * </pre>
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public final class HeadlessReplay {
+
+    /** Race milliseconds replayed by each advance. */
+    private static final int REPLAY_STEP = 60_000;
+
+    /** Nanoseconds in one millisecond. */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /** Milliseconds in one second. */
+    private static final double MILLIS_PER_SEC = 1000.0;
+
+    /** The exit status when a race could not be replayed. */
+    private static final int EXIT_FAILED = 1;
+
+    /** The exit status when the command line is wrong. */
+    private static final int EXIT_USAGE = 2;
+
+    /** How to run this program. */
+    private static final String USAGE = "usage: HeadlessReplay [-count] [-analytics] "
+                                        + "[-export DIRECTORY] RACE_FILE...";
+
+    /** Where reports are written. */
+    private final PrintStream myReport;
+
+    /** The sinks sent every race. */
+    private final List<ReplaySink> mySinks;
+
+    /** The header of the race being replayed. */
+    private RaceHeader myHeader;
+
+    /** The racers of the race being replayed. */
+    private RacerRegistry myRacers;
+
+    /** The messages replayed of the race being replayed. */
+    private long myCount;
+
+    /** The messages replayed of every race. */
+    private long myTotalCount;
+
+    /** Nanoseconds spent replaying every race. */
+    private long myTotalReplay;
+
+    /**
+     * Constructs a HeadlessReplay sending races to sinks.
+     *
+     * @param theReport where reports are written
+     * @param theSinks the sinks sent every race
+     */
+    public HeadlessReplay(final PrintStream theReport, final List<ReplaySink> theSinks) {
+        myReport = theReport;
+        mySinks = new ArrayList<>(theSinks);
+    }
+
+    /**
+     * Replays the races on the command line.
+     *
+     * @param theArgs the sink options, then the race files
+     */
+    public static void main(final String[] theArgs) {
+        final List<ReplaySink> sinks = new ArrayList<>();
+        final List<File> files = new ArrayList<>();
+        boolean usage = false;
+        int i = 0;
+        while (i < theArgs.length) {
+            final String arg = theArgs[i];
+            if ("-count".equals(arg)) {
+                sinks.add(new CountingSink());
+            } else if ("-analytics".equals(arg)) {
+                sinks.add(new AnalyticsSink());
+            } else if ("-export".equals(arg) && i + 1 < theArgs.length) {
+                i++;
+                sinks.add(new ExportSink(new File(theArgs[i])));
+            } else if (arg.startsWith("-")) {
+                usage = true;
+            } else {
+                files.add(new File(arg));
+            }
+            i++;
+        }
+        int status = 0;
+        if (usage || files.isEmpty()) {
+            System.err.println(USAGE);
+            status = EXIT_USAGE;
+        } else if (!new HeadlessReplay(System.out, sinks).replayAll(files)) {
+            status = EXIT_FAILED;
+        }
+        System.exit(status);
+    }
+
+    /**
+     * Replays races one after another, reporting on each and then on all of them.
+     * A race which can not be replayed is reported and the next race is replayed.
+     *
+     * @param theRaceFiles the race files to replay
+     * @return true if every race was replayed, false otherwise
+     */
+    public boolean replayAll(final List<File> theRaceFiles) {
+        boolean replayed = true;
+        final long start = System.nanoTime();
+        for (final File file : theRaceFiles) {
+            try {
+                replay(file);
+            } catch (final IOException | UncheckedIOException
+                            | IllegalArgumentException e) {
+                myReport.println(file + ": failed: " + e.getMessage());
+                replayed = false;
+            }
+        }
+        if (theRaceFiles.size() > 1) {
+            myReport.println("all " + theRaceFiles.size() + " races: " + myTotalCount
+                             + " messages, replay " + rate(myTotalCount, myTotalReplay)
+                             + ", total " + millis(System.nanoTime() - start));
+        }
+        return replayed;
+    }
+
+    /**
+     * Loads a race, replays it from start to end and reports on it.
+     *
+     * @param theRaceFile the race file to replay
+     * @throws IOException if the race could not be loaded or a sink failed
+     */
+    public void replay(final File theRaceFile) throws IOException {
+        final RaceModel model = new RaceModel(Runnable::run);
+        final RaceEventBus bus = model.getEventBus();
+        bus.addHeaderListener(theHeader -> myHeader = theHeader);
+        bus.addRacersListener(theRacers -> myRacers = theRacers);
+        bus.addMessageListener(this::count);
+
+        final long loadStart = System.nanoTime();
+        model.loadRace(theRaceFile);
+        final long load = System.nanoTime() - loadStart;
+
+        for (final ReplaySink sink : mySinks) {
+            sink.raceStarted(theRaceFile, myHeader, myRacers);
+            bus.addMessageListener(sink);
+        }
+        myCount = 0;
+        final long replayStart = System.nanoTime();
+        for (int time = 0; time < myHeader.getTime(); time += REPLAY_STEP) {
+            model.advance(REPLAY_STEP);
+        }
+        final long replay = System.nanoTime() - replayStart;
+        myTotalCount += myCount;
+        myTotalReplay += replay;
+
+        final long reportStart = System.nanoTime();
+        myReport.println(theRaceFile + ": " + myRacers.size() + " racers, "
+                         + myHeader.getTime() / MILLIS_PER_SEC + " s race time, "
+                         + myCount + " messages");
+        for (final ReplaySink sink : mySinks) {
+            sink.raceFinished(myReport);
+        }
+        final long report = System.nanoTime() - reportStart;
+        myReport.println("  load " + millis(load) + ", replay " + millis(replay) + " ("
+                         + rate(myCount, replay) + "), report " + millis(report));
+    }
+
+    /**
+     * Counts replayed messages.
+     *
+     * @param theMessages the messages replayed
+     */
+    private void count(final MessageBatch theMessages) {
+        myCount += theMessages.size();
+    }
+
+    /**
+     * Returns nanoseconds as milliseconds.
+     *
+     * @param theNanos the nanoseconds
+     * @return the milliseconds with a unit
+     */
+    private static String millis(final long theNanos) {
+        return String.format("%.1f ms", theNanos / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Returns messages per second.
+     *
+     * @param theMessages the number of messages
+     * @param theNanos the nanoseconds they took
+     * @return the messages per second with a unit
+     */
+    private static String rate(final long theMessages, final long theNanos) {
+        final double seconds = Math.max(1, theNanos) / NANOS_PER_MILLI / MILLIS_PER_SEC;
+        return String.format("%,.0f messages/s", theMessages / seconds);
+    }
+}
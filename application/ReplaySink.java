@@ -0,0 +1,38 @@
+package application;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import model.RaceEventBus;
+import model.RaceHeader;
+import model.RacerRegistry;
+
+/**
+ * Defines behaviors for objects which take in races replayed without a user interface.
+ * A sink is told when each race starts, is sent every message of the race in batches,
+ * and reports on the race when it is finished. One sink takes in races one at a time.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public interface ReplaySink extends RaceEventBus.MessageListener {
+
+    /**
+     * Called when a race is loaded, before any of its messages are sent.
+     *
+     * @param theRaceFile the file the race was loaded from
+     * @param theHeader the race header
+     * @param theRacers the racers of the race
+     * @throws IOException if the sink can not take in the race
+     */
+    void raceStarted(File theRaceFile, RaceHeader theHeader, RacerRegistry theRacers)
+                    throws IOException;
+
+    /**
+     * Called when every message of a race has been sent.
+     *
+     * @param theReport where to write a report on the race
+     * @throws IOException if the sink could not take in every message
+     */
+    void raceFinished(PrintStream theReport) throws IOException;
+}
@@ -1,14 +1,18 @@
 package controller;
 
 import static model.PropertyChangeEnabledRaceControls.PROPERTY_HEADER_INFO;
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_LOADED_TO;
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_LOAD_FAILED;
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_LOAD_PROGRESS;
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_MESSAGE_BATCH;
 import static model.PropertyChangeEnabledRaceControls.PROPERTY_NEW_MESSAGES;
 import static model.PropertyChangeEnabledRaceControls.PROPERTY_SENDING_STRING;
 import static model.PropertyChangeEnabledRaceControls.PROPERTY_TIME;
 
 import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.EventQueue;
-import java.awt.GridLayout;
 import java.awt.Image;
 import java.awt.Insets;
 import java.awt.event.ActionEvent;
@@ -21,24 +25,26 @@ import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
-import javax.swing.JCheckBox;
 import javax.swing.JFrame;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JSlider;
 import javax.swing.JTabbedPane;
-import javax.swing.JTextArea;
 import javax.swing.JToolBar;
 import javax.swing.ScrollPaneConstants;
-import javax.swing.Timer;
 import javax.swing.border.EmptyBorder;
+import model.Message;
+import model.MessageBatch;
 import model.PropertyChangeEnabledRaceControls;
 import model.RaceHeader;
-import model.RaceModel;
-import model.Racer;
+import model.RaceSimulation;
+import model.RacerRegistry;
 import view.ViewMainGUI;
 
 /**
@@ -64,12 +70,6 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
     /** The number of seconds in ten seconds. */
     public static final int TEN_SECONDS = 10;
     
-    /** The number of rows which display the racer toggles. */
-    public static final int NUM_ROWS = 3;
-    
-    /** The number of rows which display the racer toggles. */
-    public static final int NUM_COLS = 5;
-    
     /** A formatter to require at least 1 digit, leading 0. */
     public static final DecimalFormat ONE_DIGIT_FORMAT = new DecimalFormat("0");
     
@@ -79,11 +79,11 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
     /** A formatter to require at least 3 digits, leading 0s. */
     public static final DecimalFormat THREE_DIGIT_FORMAT = new DecimalFormat("000");
     
-    /** The speed multiplier for the timer on one_times mode. */
-    private static final int NORMAL_SPEED = 1;
+    /** The playback speeds offered by the speed selector. */
+    private static final double[] SPEEDS = {0.1, 0.25, 0.5, 1, 2, 4, 10, 25, 50, 100};
     
-    /** The speed multiplier for timer on four_times mode. */
-    private static final int FAST_SPEED = 4;
+    /** A formatter for playback speeds. */
+    private static final DecimalFormat SPEED_FORMAT = new DecimalFormat("0.##");
     
     /** Start text for the start/stop button. */
     private static final String BUTTON_TEXT_START = "Start";
@@ -103,17 +103,14 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
     /** Restart icon text for the restart button. */
     private static final String BUTTON_ICON_RESTART = "./images/ic_restart.png";
     
-    /** One times text for the one times/ four times button. */
-    private static final String BUTTON_TEXT_ONE_TIMES = "Times One"; 
+    /** Speed text for the speed selector button. */
+    private static final String BUTTON_TEXT_SPEED = "Speed "; 
     
-    /** One times icon text for the one times/ four times button. */
-    private static final String BUTTON_ICON_ONE_TIMES = "./images/ic_one_times.png";
+    /** Speed icon text for the speed selector button. */
+    private static final String BUTTON_ICON_SPEED = "./images/ic_one_times.png";
     
-    /** Four times text for the one times/ four times button. */
-    private static final String BUTTON_TEXT_FOUR_TIMES = "Times Four"; 
-    
-    /** Four times icon text for the one times/ four times button. */
-    private static final String BUTTON_ICON_FOUR_TIMES = "./images/ic_four_times.png";
+    /** Step text for the frame step button. */
+    private static final String BUTTON_TEXT_STEP = "Step"; 
     
     /** Single race text for the no loop/ loop button. */
     private static final String BUTTON_TEXT_SINGLE = "Single Race"; 
@@ -142,23 +139,23 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
     /** Dimension of square JToolBar icons. */
     private static final int ICON_SIZE = 24;
     
-    /** Row dimension of JTextArea which displays race information. */
+    /** Row dimension of the log which displays race information. */
     private static final int ROWS = 10;
     
-    /** Row dimension of JTextArea which displays race information. */
+    /** Column dimension of the log which displays race information. */
     private static final int COLUMNS = 50;
     
+    /** The most lines the log which displays race information keeps. */
+    private static final int LOG_RETENTION = 100_000;
+    
     /** The milliseconds at which the timer ticks. */
     private static final int TIMER_FREQUENCY = 29;
     
     /** A generated serial version UID for object Serialization. */
     private static final long serialVersionUID = -5833167480206379948L;
     
-    /** The race model. */
-    private final PropertyChangeEnabledRaceControls myModel;
-    
-    /** A Swing Timer object for advancing race time. */
-    private final Timer mySwingTimer;
+    /** The race simulation, which plays the race model on its own thread. */
+    private final RaceSimulation myModel;
     
     /** A list of button race control actions such as play, pause, and loop. */
     private final List<Action> myActions = new ArrayList<Action>();
@@ -175,41 +172,42 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
     /** JMenu which holds buttons that control the race. */
     private final JMenu myControlsMenu;
     
-    /** A text area which displays race information from the race model. */
-    private final JTextArea myText;
+    /** A log which displays race information from the race model. */
+    private final MessageLog myText;
     
     /** A scrolling pane to hold the text area which displays race information. */
     private final JScrollPane myScroll;
-
-    /** Multiplier for rate at which timer ticks. */
-    private int myMultiplier = 1;
     
+    /** A progress bar which shows how far along a race file load is. */
+    private final JProgressBar myProgressBar = new JProgressBar(0, 100);
+
     /** Holds whether the race will loop or not. Race will loop if this is true. */
     private boolean myLoop;
     
+    /** Holds whether the slider is being moved to the model time, not by the user. */
+    private boolean myFollowingTime;
+    
     /** Holds race participants so they may be toggled on or off in the model. */
-    private JPanel myParticipantPanel;
+    private ParticipantList myParticipantPanel;
 
     /** Tabbed pane which holds race information and race participant panels. */
     private JTabbedPane myTappedPane;
     
 
     /**
-     * Creates a ControllerMainGUI object which controls a race given a race model.
+     * Creates a ControllerMainGUI object which controls a race given a race simulation.
      * 
-     * @param theModel the race model that gives race information to the controller
+     * @param theModel the race simulation that gives race information to the controller
      */
-    public ControllerMainGUI(final RaceModel theModel) {       
+    public ControllerMainGUI(final RaceSimulation theModel) {       
         super(new BorderLayout());
         myModel = theModel;
-        mySwingTimer = new Timer(TIMER_FREQUENCY, this::handleTimer);
-//        myMultiplier = 1;        
         mySlider = buildSlider(1);
         myTimeLabel = new TimeLabel();
 //        myToolbar = new JToolBar();
 //        myActions = new ArrayList<>();
         myControlsMenu = new JMenu("Controls");
-        myText = new JTextArea(ROWS, COLUMNS);
+        myText = new MessageLog(LOG_RETENTION, ROWS, COLUMNS);
         myScroll = new JScrollPane(myText);
         myLoop = false;
         finishSetUp();
@@ -230,7 +228,8 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
         // Building race control buttons
         myActions.add(new RestartAction(BUTTON_TEXT_RESTART));
         myActions.add(new StartAction(BUTTON_TEXT_START));
-        myActions.add(new SpeedAction(BUTTON_TEXT_ONE_TIMES));
+        myActions.add(new SpeedAction(BUTTON_TEXT_SPEED));
+        myActions.add(new StepAction(BUTTON_TEXT_STEP));
         myActions.add(new LoopAction(BUTTON_TEXT_SINGLE));
         myActions.add(new ClearAction(BUTTON_TEXT_CLEAR));
       
@@ -242,10 +241,14 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
             
             // Add control button to the JToolBar
             final JButton button = new JButton(a);
-            button.setHideActionText(true); 
+            // actions without an icon, like step, keep their text
+            button.setHideActionText(a.getValue(Action.SMALL_ICON) != null); 
             button.setEnabled(false);
             myToolbar.add(button);
         }
+        myProgressBar.setStringPainted(true);
+        myProgressBar.setVisible(false);
+        myToolbar.add(myProgressBar);
                 
         myModel.addPropertyChangeListener(myTimeLabel);
         myModel.addPropertyChangeListener(this);
@@ -259,7 +262,9 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
         final JFrame window = new JFrame("Race Day!");
         window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         
-        final RaceModel model = new RaceModel();
+        final RaceSimulation model = new RaceSimulation(TIMER_FREQUENCY);
+        model.setStreamingLoading(true);
+        model.setBatchedDelivery(true);
         
         final ControllerMainGUI pane = new ControllerMainGUI(model);
         pane.setOpaque(true);
@@ -318,27 +323,32 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
      */
     private JSlider buildSlider(final int theMax) {
         final JSlider slider = new JSlider(0, theMax, 0);
+        slider.setUI(new LoadedRangeSliderUI());
         slider.setEnabled(false);
         slider.setBorder(new EmptyBorder(SLIDE_BORDER));
-        slider.addChangeListener(e -> myModel.moveTo(slider.getValue()));
+        slider.addChangeListener(e -> {
+            // only the user moving the slider moves the race, as the model is ahead by now
+            if (!myFollowingTime) {
+                myModel.moveTo(slider.getValue());
+            }
+        });
         return slider;
     }
 
     
     /**
      * Creates the tabbed pane in Controller GUI.
-     * One tab has a text area for race info, the other 
-     * tab is a panel which holds checkboxes that toggle racers.
+     * One tab has a log of race info, the other 
+     * tab is a searchable list of checkboxes that toggle racers.
      * 
      * @return a JTabbedPane which contains a race info and racer toggle
      */
     private JTabbedPane buildTabbedPane() {
         myTappedPane = new JTabbedPane();
         myTappedPane.add("Data Output Stream", myScroll);
-        myText.setEditable(false);
         myScroll.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
         
-        myParticipantPanel = new JPanel(new GridLayout(NUM_ROWS, NUM_COLS));
+        myParticipantPanel = new ParticipantList(myModel);
         myParticipantPanel.setPreferredSize(new Dimension(1, 1));
 
         myTappedPane.add("Race Participants", myParticipantPanel);
@@ -349,16 +359,6 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
     }
  
     
-    /**
-     * Event handler for the timer. 
-     * 
-     * @author Charles Bryan
-     * @param theEvent the fired event
-     */
-    private void handleTimer(final ActionEvent theEvent) { //NOPMD
-        myModel.advance(TIMER_FREQUENCY * myMultiplier);
-    }
-    
 
     /**
      * Creates and returns a JMenuBar for a JFrame which houses the controller.
@@ -380,16 +380,36 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
         }
         
         if (theEvent.getPropertyName().equals(PROPERTY_NEW_MESSAGES)) {
-            myText.append(theEvent.getNewValue().toString());
-            myText.append("\n");
+            myText.append((Message) theEvent.getNewValue());
+        }
+        
+        if (theEvent.getPropertyName().equals(PROPERTY_MESSAGE_BATCH)) {
+            myText.append((MessageBatch) theEvent.getNewValue());
         }
         
         if (theEvent.getPropertyName().equals(PROPERTY_SENDING_STRING)) {
             myText.append(theEvent.getNewValue().toString());
         }
         
+        if (theEvent.getPropertyName().equals(PROPERTY_LOAD_PROGRESS)) {
+            myProgressBar.setValue((Integer) theEvent.getNewValue());
+            myProgressBar.setVisible(myProgressBar.getValue() < myProgressBar.getMaximum());
+        }
+        
+        if (theEvent.getPropertyName().equals(PROPERTY_LOAD_FAILED)) {
+            myProgressBar.setVisible(false);
+        }
+
+        
+        if (theEvent.getPropertyName().equals(PROPERTY_LOADED_TO)) {
+            mySlider.putClientProperty(LoadedRangeSliderUI.LOADED_TO, theEvent.getNewValue());
+            mySlider.repaint();
+        }
+        
         if (theEvent.getPropertyName().equals(PROPERTY_TIME)) {
+            myFollowingTime = true;
             mySlider.setValue(Integer.parseInt(theEvent.getNewValue().toString()));
+            myFollowingTime = false;
         }
 
         //"Too many static imports may lead to messy code." this is so much cleaner wow 
@@ -397,7 +417,8 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
                                   PropertyChangeEnabledRaceControls.PROPERTY_RACE_COMPLETE)) {
             if (myLoop) {
                 myModel.moveTo(0);
-            } else {
+            } else if (myModel.isPlaying()) {
+                // ticks sent before the pause arrives may complete the race again
                 ((JButton) myToolbar.getComponent(1)).doClick();
             }
         }
@@ -417,17 +438,26 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
      */
     private void headerInfoPropertyChange(final PropertyChangeEvent theEvent) {
         if (theEvent.getPropertyName().equals(PROPERTY_HEADER_INFO)) {
+            final RaceHeader header = (RaceHeader) theEvent.getNewValue();
+            if (header == null && myModel.isPlaying()) {
+                // a streamed race was taken back and nothing is left to play
+                ((JButton) myToolbar.getComponent(1)).doClick();
+            }
             for (int i = 0; i < myActions.size(); i++) {
-                myControlsMenu.getMenuComponent(i).setEnabled(true);
-                myToolbar.getComponent(i).setEnabled(true);
+                myControlsMenu.getMenuComponent(i).setEnabled(header != null);
+                myToolbar.getComponent(i).setEnabled(header != null);
             }
-            myText.append("File load completed!\n");
             mySlider.setValue(0);
-            mySlider.setMaximum(((RaceHeader) theEvent.getNewValue()).getTime());
-            mySlider.setMajorTickSpacing(MILLIS_PER_SEC * SEC_PER_MIN);
-            mySlider.setMinorTickSpacing(MILLIS_PER_SEC * TEN_SECONDS);
-            mySlider.setPaintTicks(true);
-            mySlider.setEnabled(true);
+            if (header == null) {
+                mySlider.setEnabled(false);
+            } else {
+                myText.append("File load completed!\n");
+                mySlider.setMaximum(header.getTime());
+                mySlider.setMajorTickSpacing(MILLIS_PER_SEC * SEC_PER_MIN);
+                mySlider.setMinorTickSpacing(MILLIS_PER_SEC * TEN_SECONDS);
+                mySlider.setPaintTicks(true);
+                mySlider.setEnabled(true);
+            }
         }
     }
     
@@ -443,22 +473,7 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
         if (theEvent.getPropertyName().equals(
                                   PropertyChangeEnabledRaceControls.PROPERTY_RACER_INFO)) {
             myTappedPane.setEnabledAt(1, true);
-            myParticipantPanel.removeAll();
-            final ArrayList<Racer> racers = (ArrayList<Racer>) theEvent.getNewValue();
-            for (final Racer r : racers) { 
-                final JCheckBox box = new JCheckBox(r.getName(), true);
-                box.setName(Integer.toString(r.getID()));
-    
-                box.addActionListener(e -> {
-                    if (box.isSelected()) {
-                        myModel.toggleParticipant(Integer.parseInt(box.getName()), true);
-                    } else {
-                        myModel.toggleParticipant(Integer.parseInt(box.getName()), false);
-                    }
-                }); // multiple statements in one lambda expression sorry
-                
-                myParticipantPanel.add(box);
-            }
+            myParticipantPanel.setRacers((RacerRegistry) theEvent.getNewValue());
         }        
     }
     
@@ -489,13 +504,13 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
 
         @Override
         public void actionPerformed(final ActionEvent theEvent) {
-            if (mySwingTimer.isRunning()) {
-                mySwingTimer.stop();
+            if (myModel.isPlaying()) {
+                myModel.setPlaying(false);
                 putValue(Action.NAME, BUTTON_TEXT_START);
                 setIcon(new ImageIcon(BUTTON_ICON_START));
                 mySlider.setEnabled(true);
             } else {
-                mySwingTimer.start();
+                myModel.setPlaying(true);
                 putValue(Action.NAME, BUTTON_TEXT_STOP);
                 setIcon(new ImageIcon(BUTTON_ICON_STOP));
                 mySlider.setEnabled(false);
@@ -563,9 +578,10 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
     }
 
     /**
-     * An action to encapsulate the Speed Button.
+     * An action to encapsulate the Speed Button, which selects the playback speed
+     * from a menu of speeds, or any other speed from 0.1 to 100 times.
      * @author Conner Canning
-     * @version 9 March 2019
+     * @version 17 October 2026
      */
     class SpeedAction extends AbstractAction {
 
@@ -577,23 +593,52 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
          * @param theText the title for the action
          */
         SpeedAction(final String theText) {
-            super(theText);
-            setIcon(new ImageIcon(BUTTON_ICON_ONE_TIMES));
+            super(theText + SPEED_FORMAT.format(1) + 'x');
+            setIcon(new ImageIcon(BUTTON_ICON_SPEED));
         }
 
         @Override
         public void actionPerformed(final ActionEvent theEvent) {
-            if (myMultiplier == NORMAL_SPEED) {
-                myMultiplier = FAST_SPEED;
-                putValue(Action.NAME, BUTTON_TEXT_FOUR_TIMES);
-                setIcon(new ImageIcon(BUTTON_ICON_FOUR_TIMES));
-            } else {
-                myMultiplier = NORMAL_SPEED;
-                putValue(Action.NAME, BUTTON_TEXT_ONE_TIMES);
-                setIcon(new ImageIcon(BUTTON_ICON_ONE_TIMES));
+            final JPopupMenu speeds = new JPopupMenu();
+            for (final double speed : SPEEDS) {
+                final JMenuItem item = new JMenuItem(SPEED_FORMAT.format(speed) + 'x');
+                item.addActionListener(e -> setSpeed(speed));
+                speeds.add(item);
+            }
+            final JMenuItem other = new JMenuItem("Other...");
+            other.addActionListener(e -> askSpeed());
+            speeds.add(other);
+            final Component source = (Component) theEvent.getSource();
+            speeds.show(source, 0, source.getHeight());
+        }
+        
+        /**
+         * Asks the user for a playback speed and sets it, if it is one.
+         */
+        private void askSpeed() {
+            final String answer = JOptionPane.showInputDialog(ControllerMainGUI.this, 
+                                                              "Playback speed, 0.1 to 100:");
+            if (answer != null) {
+                try {
+                    setSpeed(Double.parseDouble(answer.replace("x", "").trim()));
+                } catch (final IllegalArgumentException e) {
+                    // NumberFormatException too
+                    JOptionPane.showMessageDialog(ControllerMainGUI.this, 
+                                                  "Not a speed from 0.1 to 100: " + answer);
+                }
             }
         }
         
+        /**
+         * Sets the playback speed of the model and shows it on this action.
+         * @param theSpeed race milliseconds per real millisecond
+         */
+        private void setSpeed(final double theSpeed) {
+            myModel.setSpeed(theSpeed);
+            putValue(Action.NAME, BUTTON_TEXT_SPEED + SPEED_FORMAT.format(theSpeed) + 'x');
+            putValue(Action.SHORT_DESCRIPTION, getValue(Action.NAME));
+        }
+        
         /**
          * Helper to set the Icon to both the Large and Small Icon values. 
          * @param theIcon the icon to set for this Action 
@@ -612,6 +657,30 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
         }
     }
 
+    /**
+     * An action to encapsulate the Step Button, which advances the race one frame.
+     * @author Conner Canning
+     * @version 17 October 2026
+     */
+    class StepAction extends AbstractAction {
+
+        /** A generated serial version UID for object Serialization. */
+        private static final long serialVersionUID = 1236567891L;
+
+        /**
+         * Constructs a StepAction. 
+         * @param theText the title for the action
+         */
+        StepAction(final String theText) {
+            super(theText);
+        }
+
+        @Override
+        public void actionPerformed(final ActionEvent theEvent) {
+            myModel.step();
+        }
+    }
+
     /**
      * An action to encapsulate the Loop Button.
      * @author Conner Canning
@@ -683,7 +752,7 @@ public class ControllerMainGUI extends JPanel implements PropertyChangeListener
 
         @Override
         public void actionPerformed(final ActionEvent theEvent) {
-            myText.setText("");
+            myText.clear();
         }
         
         /**
@@ -0,0 +1,33 @@
+package controller;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import javax.swing.plaf.metal.MetalSliderUI;
+
+/**
+ * This program paints a race slider which shades the part of the race that
+ * has not been loaded yet, while a race streams in behind playback.
+ * 
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+final class LoadedRangeSliderUI extends MetalSliderUI {
+    
+    /** Client property of the slider holding the race time loaded so far, as an Integer. */
+    static final String LOADED_TO = "loadedTo";
+    
+    /** Color laid over the part of the track which is not loaded yet. */
+    private static final Color UNLOADED_COLOR = new Color(128, 128, 128, 96);
+
+    @Override
+    public void paintTrack(final Graphics theGraphics) {
+        super.paintTrack(theGraphics);
+        final Object loaded = slider.getClientProperty(LOADED_TO);
+        if (loaded instanceof Integer && (Integer) loaded < slider.getMaximum()) {
+            final int start = xPositionForValue((Integer) loaded);
+            final int end = xPositionForValue(slider.getMaximum());
+            theGraphics.setColor(UNLOADED_COLOR);
+            theGraphics.fillRect(start, trackRect.y, end - start, trackRect.height);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package controller;
 
 import static model.PropertyChangeEnabledRaceControls.PROPERTY_HEADER_INFO;
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_LOAD_FAILED;
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_LOAD_PROGRESS;
 
 import java.awt.Image;
 import java.awt.event.ActionEvent;
@@ -8,7 +10,8 @@ import java.awt.event.ActionListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
-import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Future;
 import javax.swing.ImageIcon;
 import javax.swing.JFileChooser;
 import javax.swing.JMenu;
@@ -17,6 +20,7 @@ import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import model.PropertyChangeEnabledRaceControls;
+import model.RaceHeader;
 
 /**
  * This program builds the JMenuBar for a race controller. 
@@ -52,6 +56,9 @@ public class MenuGUI extends JPanel implements PropertyChangeListener {
     
     /** Holds / displays the about programmer information. */
     private final JMenuItem myAboutItem;
+    
+    /** Cancels the race file currently loading. */
+    private final JMenuItem myCancelItem;
 
     /** User chosen file to read race from. */
     private File myChosenFile;
@@ -59,6 +66,9 @@ public class MenuGUI extends JPanel implements PropertyChangeListener {
     /** Holds header information about the loaded race. */
     private String myInfo = "";
     
+    /** The race file load in progress, null if nothing is loading. */
+    private Future<RaceHeader> myLoad;
+    
     /**
      * Creates a MenuGUI object to be used when creating race controller.
      * 
@@ -70,6 +80,7 @@ public class MenuGUI extends JPanel implements PropertyChangeListener {
         myRaceModel.addPropertyChangeListener(this);
         myInfoItem = new JMenuItem("Race Info...");
         myAboutItem = new JMenuItem("About...");        
+        myCancelItem = new JMenuItem("Cancel loading");
     }
     
     
@@ -133,6 +144,10 @@ public class MenuGUI extends JPanel implements PropertyChangeListener {
         });
         menu.add(item);
         
+        myCancelItem.addActionListener(e -> cancelLoad());
+        myCancelItem.setEnabled(false);
+        menu.add(myCancelItem);
+        
         menu.addSeparator();
         
         final JMenuItem exit = new JMenuItem("Exit");
@@ -144,22 +159,30 @@ public class MenuGUI extends JPanel implements PropertyChangeListener {
     
     /**
      * Helper method which selects a user chosen file and sends the file
-     * to the race model to be loaded into race information for the controller. 
+     * to the race model to be loaded in the background into race information 
+     * for the controller. Any load still in progress is cancelled first.
      */
     private void chooseFile() {
         myFileChooser.setDialogTitle("Choose a race file!");
         final int result = myFileChooser.showOpenDialog(getParent());
         if (result == JFileChooser.APPROVE_OPTION) {
-            try {
-                myChosenFile = myFileChooser.getSelectedFile();
-                myRaceModel.loadRace(myChosenFile);
-            } catch (final IOException e) {
-//                JOptionPane.showMessageDialog(MenuGUI.this, FILE_ERROR_TEXT);
-                JOptionPane.showMessageDialog(MenuGUI.this, FILE_ERROR_TEXT, 
-                                              "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            cancelLoad();
+            myChosenFile = myFileChooser.getSelectedFile();
+            myLoad = myRaceModel.loadRaceAsync(myChosenFile);
+            myCancelItem.setEnabled(true);
         }
     }
+    
+    /**
+     * Helper method which cancels the race file load in progress, if any.
+     */
+    private void cancelLoad() {
+        if (myLoad != null) {
+            myLoad.cancel(true);
+            myLoad = null;
+        }
+        myCancelItem.setEnabled(false);
+    }
 
 
     /**
@@ -168,9 +191,27 @@ public class MenuGUI extends JPanel implements PropertyChangeListener {
     @Override
     public void propertyChange(final PropertyChangeEvent theEvent) {
         if (theEvent.getPropertyName().equals(PROPERTY_HEADER_INFO)) {
-            myInfoItem.setEnabled(true);
-            myInfo = theEvent.getNewValue().toString();
-                        
+            myInfoItem.setEnabled(theEvent.getNewValue() != null);
+            myInfo = String.valueOf(theEvent.getNewValue());
+        }
+        
+        if (theEvent.getPropertyName().equals(PROPERTY_LOAD_PROGRESS)
+            && myLoad != null && myLoad.isDone()) {
+            // a streamed race is in place long before it is done loading
+            myLoad = null;
+            myCancelItem.setEnabled(false);
+        }
+        
+        if (theEvent.getPropertyName().equals(PROPERTY_LOAD_FAILED)) {
+            if (myLoad == null || myLoad.isDone()) {
+                // otherwise a load cancelled earlier is only now reporting back
+                myLoad = null;
+                myCancelItem.setEnabled(false);
+            }
+            if (!(theEvent.getNewValue() instanceof InterruptedIOException)) {
+                JOptionPane.showMessageDialog(MenuGUI.this, FILE_ERROR_TEXT, 
+                                              "Error", JOptionPane.ERROR_MESSAGE);
+            }
         }
     }
 
@@ -0,0 +1,353 @@
+package controller;
+
+import java.util.Arrays;
+import javax.swing.AbstractListModel;
+import javax.swing.JList;
+import javax.swing.ListSelectionModel;
+import model.CrossingMessage;
+import model.LeaderboardMessage;
+import model.Message;
+import model.MessageBatch;
+import model.MessageVisitor;
+import model.TelemetryMessage;
+
+/**
+ * This program displays race information as a list of lines which keeps only the
+ * newest lines. Lines are kept in a ring of compact primitive records, the type tag,
+ * time stamp, racer ID, lap and value of each message, and are only turned into text
+ * when a row is painted, and the list paints only the rows that are visible. A
+ * leaderboard keeps only as many leading racer IDs as a row has room to show, so a
+ * line costs the same however many racers the race has. Rows all have the same size,
+ * so adding lines never lays out the rows already shown. The list follows the newest
+ * line while it is scrolled to the end.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public final class MessageLog extends JList<Object> {
+
+    /** A generated serial version UID for object Serialization. */
+    private static final long serialVersionUID = 4402318836557045812L;
+
+    /** The lines of the log. */
+    private final LineRing myLines;
+
+    /**
+     * Constructs an empty log.
+     *
+     * @param theRetention the most lines kept, the oldest are dropped first
+     * @param theRows the number of lines shown at once
+     * @param theColumns the number of characters wide the log is
+     * @throws IllegalArgumentException if theRetention is less than one
+     */
+    public MessageLog(final int theRetention, final int theRows, final int theColumns) {
+        super();
+        if (theRetention < 1) {
+            throw new IllegalArgumentException("Retention must be at least 1: "
+                                               + theRetention);
+        }
+        // each racer ID takes at least two characters of a row, with its separator
+        myLines = new LineRing(theRetention, theColumns / 2 + 1);
+        setModel(myLines);
+        final char[] prototype = new char[theColumns];
+        Arrays.fill(prototype, 'm');
+        // a prototype fixes every row's size, so rows are never measured one by one
+        setPrototypeCellValue(new String(prototype));
+        setVisibleRowCount(theRows);
+        setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    }
+
+    /**
+     * Adds the lines of some text. A line break at the end of the text does not
+     * add an empty line.
+     *
+     * @param theText the text
+     */
+    public void append(final String theText) {
+        final boolean following = isFollowing();
+        final int oldSize = myLines.getSize();
+        for (final String line : theText.split("\n")) {
+            myLines.addText(line);
+        }
+        myLines.fireAdded(oldSize);
+        follow(following);
+    }
+
+    /**
+     * Adds a message as one line.
+     *
+     * @param theMessage the message
+     */
+    public void append(final Message theMessage) {
+        final boolean following = isFollowing();
+        final int oldSize = myLines.getSize();
+        myLines.addMessage(theMessage);
+        myLines.fireAdded(oldSize);
+        follow(following);
+    }
+
+    /**
+     * Adds each message of a batch as one line, all at once.
+     *
+     * @param theMessages the messages
+     */
+    public void append(final MessageBatch theMessages) {
+        final boolean following = isFollowing();
+        final int oldSize = myLines.getSize();
+        final int size = theMessages.size();
+        for (int i = Math.max(0, size - myLines.capacity()); i < size; i++) {
+            myLines.addMessage(theMessages.get(i));
+        }
+        myLines.fireAdded(oldSize);
+        follow(following);
+    }
+
+    /**
+     * Removes every line.
+     */
+    public void clear() {
+        clearSelection();
+        myLines.clear();
+    }
+
+    /**
+     * Returns whether the newest line is shown, so the log should keep showing it.
+     *
+     * @return true if the log is scrolled to its end, false otherwise
+     */
+    private boolean isFollowing() {
+        return getLastVisibleIndex() >= myLines.getSize() - 1;
+    }
+
+    /**
+     * Scrolls to the newest line if the log was following it.
+     *
+     * @param theFollowing whether the log was scrolled to its end
+     */
+    private void follow(final boolean theFollowing) {
+        if (theFollowing && myLines.getSize() > 0) {
+            ensureIndexIsVisible(myLines.getSize() - 1);
+        }
+    }
+
+    /**
+     * Holds the newest lines of the log in a ring of compact records, oldest first.
+     * A message line keeps its type tag, time stamp, racer ID, lap and a value: the
+     * distance of a telemetry message, 1 for a finishing line crossing, or the number
+     * of racers on a leaderboard. Only text lines and the leading racer IDs of a
+     * leaderboard are kept as objects.
+     */
+    private static final class LineRing extends AbstractListModel<Object>
+                    implements MessageVisitor {
+
+        /** A generated serial version UID for object Serialization. */
+        private static final long serialVersionUID = -6085263416233498871L;
+
+        /** The tag of a line of text. */
+        private static final byte TEXT = -1;
+
+        /** The character which separates message values. */
+        private static final char SEPARATOR = ':';
+
+        /** Shown after the last leaderboard racer ID kept when more did not fit. */
+        private static final String MORE = ":...";
+
+        /** The type tag of each line, or TEXT. */
+        private final byte[] myTags;
+
+        /** The time stamp of each message line. */
+        private final int[] myTimes;
+
+        /** The racer ID of each telemetry or line crossing line. */
+        private final int[] myIDs;
+
+        /** The lap of each telemetry or line crossing line. */
+        private final int[] myLaps;
+
+        /** The kind specific value of each message line. */
+        private final double[] myValues;
+
+        /** The text of each text line, or the leading racer IDs of each leaderboard. */
+        private final Object[] myObjects;
+
+        /** The most leading racer IDs kept of a leaderboard. */
+        private final int myLeaders;
+
+        /** The position in the ring of the oldest line. */
+        private int myStart;
+
+        /** The number of lines held. */
+        private int mySize;
+
+        /** The number of lines added since listeners were last told. */
+        private int myAdded;
+
+        /** The position in the ring the message being added is written to. */
+        private int mySlot;
+
+        /**
+         * Constructs an empty ring.
+         *
+         * @param theCapacity the most lines held
+         * @param theLeaders the most leading racer IDs kept of a leaderboard
+         */
+        private LineRing(final int theCapacity, final int theLeaders) {
+            super();
+            myTags = new byte[theCapacity];
+            myTimes = new int[theCapacity];
+            myIDs = new int[theCapacity];
+            myLaps = new int[theCapacity];
+            myValues = new double[theCapacity];
+            myObjects = new Object[theCapacity];
+            myLeaders = theLeaders;
+        }
+
+        /**
+         * Returns the most lines held.
+         *
+         * @return the most lines held
+         */
+        private int capacity() {
+            return myTags.length;
+        }
+
+        @Override
+        public int getSize() {
+            return mySize;
+        }
+
+        @Override
+        public Object getElementAt(final int theIndex) {
+            final int slot = (myStart + theIndex) % myTags.length;
+            final byte tag = myTags[slot];
+            final Object line;
+            if (tag == TEXT) {
+                line = myObjects[slot];
+            } else {
+                final StringBuilder sb = new StringBuilder();
+                if (tag == Message.TELEMETRY) {
+                    sb.append(Message.TELEM_START).append(SEPARATOR).append(myTimes[slot]);
+                    sb.append(SEPARATOR).append(myIDs[slot]);
+                    sb.append(SEPARATOR).append(myValues[slot]);
+                    sb.append(SEPARATOR).append(myLaps[slot]);
+                } else if (tag == Message.CROSSING) {
+                    sb.append(Message.CROSSING_START).append(SEPARATOR).append(myTimes[slot]);
+                    sb.append(SEPARATOR).append(myIDs[slot]);
+                    sb.append(SEPARATOR).append(myLaps[slot]);
+                    sb.append(SEPARATOR).append(myValues[slot] == 1);
+                } else {
+                    sb.append(Message.LEAD_START).append(SEPARATOR).append(myTimes[slot]);
+                    final int[] leaders = (int[]) myObjects[slot];
+                    for (final int id : leaders) {
+                        sb.append(SEPARATOR).append(id);
+                    }
+                    if (leaders.length < myValues[slot]) {
+                        sb.append(MORE);
+                    }
+                }
+                line = sb.toString();
+            }
+            return line;
+        }
+
+        /**
+         * Adds a line of text after the newest, dropping the oldest line past the
+         * capacity. Listeners are told once fireAdded is called.
+         *
+         * @param theText the line
+         */
+        private void addText(final String theText) {
+            final int slot = nextSlot();
+            myTags[slot] = TEXT;
+            myObjects[slot] = theText;
+        }
+
+        /**
+         * Adds a message as a line after the newest, dropping the oldest line past the
+         * capacity. Listeners are told once fireAdded is called.
+         *
+         * @param theMessage the message
+         */
+        private void addMessage(final Message theMessage) {
+            mySlot = nextSlot();
+            myTags[mySlot] = (byte) theMessage.getTag();
+            myTimes[mySlot] = theMessage.getTime();
+            myObjects[mySlot] = null;
+            theMessage.accept(this);
+        }
+
+        @Override
+        public void visitTelemetry(final TelemetryMessage theMessage) {
+            myIDs[mySlot] = theMessage.getID();
+            myValues[mySlot] = theMessage.getDist();
+            myLaps[mySlot] = theMessage.getLap();
+        }
+
+        @Override
+        public void visitCrossing(final CrossingMessage theMessage) {
+            myIDs[mySlot] = theMessage.getID();
+            myValues[mySlot] = theMessage.isFinished() ? 1 : 0;
+            myLaps[mySlot] = theMessage.getLap();
+        }
+
+        @Override
+        public void visitLeaderboard(final LeaderboardMessage theMessage) {
+            final int[] leaders = new int[Math.min(myLeaders, theMessage.getOrderSize())];
+            for (int i = 0; i < leaders.length; i++) {
+                leaders[i] = theMessage.getOrderRacerID(i);
+            }
+            myObjects[mySlot] = leaders;
+            myValues[mySlot] = theMessage.getOrderSize();
+        }
+
+        /**
+         * Returns the position in the ring of a new newest line, dropping the oldest
+         * line when the ring is full.
+         *
+         * @return the position of the new line
+         */
+        private int nextSlot() {
+            final int slot;
+            if (mySize < myTags.length) {
+                slot = (myStart + mySize) % myTags.length;
+                mySize++;
+            } else {
+                slot = myStart;
+                myStart = (myStart + 1) % myTags.length;
+            }
+            myAdded++;
+            return slot;
+        }
+
+        /**
+         * Tells the list once what was removed and once what was added since the
+         * ring held the given number of lines.
+         *
+         * @param theOldSize the number of lines held before lines were added
+         */
+        private void fireAdded(final int theOldSize) {
+            final int removed = Math.min(theOldSize, theOldSize + myAdded - mySize);
+            final int added = mySize - (theOldSize - removed);
+            myAdded = 0;
+            if (removed > 0) {
+                fireIntervalRemoved(this, 0, removed - 1);
+            }
+            if (added > 0) {
+                fireIntervalAdded(this, mySize - added, mySize - 1);
+            }
+        }
+
+        /**
+         * Removes every line.
+         */
+        private void clear() {
+            final int oldSize = mySize;
+            Arrays.fill(myObjects, null);
+            myStart = 0;
+            mySize = 0;
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+        }
+    }
+}
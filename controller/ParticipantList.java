@@ -0,0 +1,270 @@
+package controller;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import java.util.Locale;
+import javax.swing.AbstractAction;
+import javax.swing.AbstractListModel;
+import javax.swing.JCheckBox;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.ListCellRenderer;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import model.RaceControls;
+import model.Racer;
+import model.RacerRegistry;
+
+/**
+ * This program builds a searchable list of race participants which toggles them on
+ * and off in the model. Only the visible rows are painted, so races of any size
+ * are shown. Typing in the search field shows only the participants whose name
+ * holds the text or whose ID starts with it. A participant is toggled by clicking
+ * its row, or with the space bar.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public final class ParticipantList extends JPanel {
+
+    /** A generated serial version UID for object Serialization. */
+    private static final long serialVersionUID = -2205187329456108771L;
+
+    /** The number of columns of the search field. */
+    private static final int SEARCH_COLUMNS = 20;
+
+    /** The name of the toggle action. */
+    private static final String TOGGLE = "toggle";
+
+    /** The model participants are toggled in. */
+    private final RaceControls myModel;
+
+    /** The participants which match the search. */
+    private final Matches myMatches;
+
+    /** The list of matching participants. */
+    private final JList<Racer> myList;
+
+    /** The search field. */
+    private final JTextField mySearch;
+
+    /** The participants of the race, by racer index. */
+    private RacerRegistry myRacers;
+
+    /** The lower case name of each participant, by racer index. */
+    private String[] myNames;
+
+    /** The ID of each participant as text, by racer index. */
+    private String[] myIDs;
+
+    /** Holds whether each participant is toggled on, by racer index. */
+    private boolean[] myToggledOn;
+
+    /**
+     * Constructs an empty participant list.
+     *
+     * @param theModel the model participants are toggled in
+     */
+    public ParticipantList(final RaceControls theModel) {
+        super(new BorderLayout());
+        myModel = theModel;
+        myRacers = new RacerRegistry();
+        myNames = new String[0];
+        myIDs = new String[0];
+        myToggledOn = new boolean[0];
+        myMatches = new Matches();
+
+        mySearch = new JTextField(SEARCH_COLUMNS);
+        mySearch.setToolTipText("Search participants by name or ID");
+        mySearch.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(final DocumentEvent theEvent) {
+                search();
+            }
+
+            @Override
+            public void removeUpdate(final DocumentEvent theEvent) {
+                search();
+            }
+
+            @Override
+            public void changedUpdate(final DocumentEvent theEvent) {
+                search();
+            }
+        });
+
+        myList = new JList<>(myMatches);
+        myList.setCellRenderer(new ToggleRenderer());
+        myList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        // fixed row sizes, so rows are never measured one by one
+        myList.setPrototypeCellValue(new Racer(0, "Participant name", 0));
+        myList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(final MouseEvent theEvent) {
+                final int row = myList.locationToIndex(theEvent.getPoint());
+                if (row >= 0 && myList.getCellBounds(row, row).contains(theEvent.getPoint())) {
+                    toggle(row);
+                }
+            }
+        });
+        myList.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_SPACE, 0), TOGGLE);
+        myList.getActionMap().put(TOGGLE, new AbstractAction() {
+            /** A generated serial version UID for object Serialization. */
+            private static final long serialVersionUID = 6403128894632012757L;
+
+            @Override
+            public void actionPerformed(final ActionEvent theEvent) {
+                if (myList.getSelectedIndex() >= 0) {
+                    toggle(myList.getSelectedIndex());
+                }
+            }
+        });
+
+        add(mySearch, BorderLayout.NORTH);
+        add(new JScrollPane(myList), BorderLayout.CENTER);
+    }
+
+    /**
+     * Shows the participants of a new race, every one toggled on.
+     *
+     * @param theRacers the participants
+     */
+    public void setRacers(final RacerRegistry theRacers) {
+        myRacers = theRacers;
+        myNames = new String[myRacers.size()];
+        myIDs = new String[myRacers.size()];
+        for (int i = 0; i < myNames.length; i++) {
+            myNames[i] = myRacers.get(i).getName().toLowerCase(Locale.ROOT);
+            myIDs[i] = Integer.toString(myRacers.getID(i));
+        }
+        myToggledOn = new boolean[myNames.length];
+        Arrays.fill(myToggledOn, true);
+        search();
+    }
+
+    /**
+     * Shows only the participants which match the search text.
+     */
+    private void search() {
+        final String text = mySearch.getText().trim().toLowerCase(Locale.ROOT);
+        final int[] matches = new int[myNames.length];
+        int count = 0;
+        for (int i = 0; i < myNames.length; i++) {
+            if (text.isEmpty() || myNames[i].contains(text) || myIDs[i].startsWith(text)) {
+                matches[count] = i;
+                count++;
+            }
+        }
+        myList.clearSelection();
+        myMatches.setMatches(Arrays.copyOf(matches, count));
+    }
+
+    /**
+     * Toggles the participant in a row of the list on or off in the model.
+     *
+     * @param theRow the row of the list
+     */
+    private void toggle(final int theRow) {
+        final int racer = myMatches.getRacerIndex(theRow);
+        myToggledOn[racer] = !myToggledOn[racer];
+        myModel.toggleParticipant(myRacers.getID(racer), myToggledOn[racer]);
+        myMatches.changed(theRow);
+    }
+
+    /**
+     * Holds the racer index of each participant which matches the search.
+     */
+    private final class Matches extends AbstractListModel<Racer> {
+
+        /** A generated serial version UID for object Serialization. */
+        private static final long serialVersionUID = -7318015146417350260L;
+
+        /** The racer index in each row. */
+        private int[] myRows = new int[0];
+
+        @Override
+        public int getSize() {
+            return myRows.length;
+        }
+
+        @Override
+        public Racer getElementAt(final int theIndex) {
+            return myRacers.get(myRows[theIndex]);
+        }
+
+        /**
+         * Returns the racer index in a row.
+         *
+         * @param theIndex the row
+         * @return the racer index
+         */
+        private int getRacerIndex(final int theIndex) {
+            return myRows[theIndex];
+        }
+
+        /**
+         * Replaces every row.
+         *
+         * @param theRows the racer index in each row
+         */
+        private void setMatches(final int[] theRows) {
+            final int oldSize = myRows.length;
+            myRows = new int[0];
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+            myRows = theRows;
+            if (myRows.length > 0) {
+                fireIntervalAdded(this, 0, myRows.length - 1);
+            }
+        }
+
+        /**
+         * Tells the list a row changed.
+         *
+         * @param theIndex the row
+         */
+        private void changed(final int theIndex) {
+            fireContentsChanged(this, theIndex, theIndex);
+        }
+    }
+
+    /**
+     * Paints a row of the list as a check box which is checked while the
+     * participant is toggled on.
+     */
+    private final class ToggleRenderer extends JCheckBox implements ListCellRenderer<Racer> {
+
+        /** A generated serial version UID for object Serialization. */
+        private static final long serialVersionUID = 3591946036015830176L;
+
+        @Override
+        public Component getListCellRendererComponent(final JList<? extends Racer> theList,
+                                                      final Racer theValue,
+                                                      final int theIndex,
+                                                      final boolean theSelected,
+                                                      final boolean theFocused) {
+            setText(theValue.getName());
+            // the prototype row, which sizes every row, has no index
+            setSelected(theIndex >= 0 && theIndex < myMatches.getSize()
+                        && myToggledOn[myMatches.getRacerIndex(theIndex)]);
+            if (theSelected) {
+                setBackground(theList.getSelectionBackground());
+                setForeground(theList.getSelectionForeground());
+            } else {
+                setBackground(theList.getBackground());
+                setForeground(theList.getForeground());
+            }
+            return this;
+        }
+    }
+}
@@ -82,6 +82,26 @@ public class CrossingMessage extends AbstractMessage {
         sb.append(this.isFinished());
         return sb.toString();
     }
+    
+    /**
+     * Returns the type tag of this message.
+     * 
+     * @return the type tag for this message
+     */
+    @Override
+    public int getTag() {
+        return Message.CROSSING;
+    }
+    
+    /**
+     * Calls the method of a visitor which handles this type of message.
+     * 
+     * @param theVisitor the visitor to handle this message
+     */
+    @Override
+    public void accept(final MessageVisitor theVisitor) {
+        theVisitor.visitCrossing(this);
+    }
 
     
     
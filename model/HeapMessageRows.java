@@ -0,0 +1,159 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * This program keeps MessageStore rows on the heap, one primitive array per column,
+ * so a telemetry row takes 13 bytes. Growing copies every column.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+final class HeapMessageRows extends MessageRows {
+
+    /** The time stamp of each row. */
+    private final int[] myTimes;
+
+    /** The message kind of each row. */
+    private final byte[] myKinds;
+
+    /** The racer index of each row. */
+    private final short[] myRacers;
+
+    /** The kind specific value of each row. */
+    private final int[] myValues;
+
+    /** The lap of each row. */
+    private final short[] myLaps;
+
+    /** Leaderboard racer indexes. */
+    private final short[] myOrders;
+
+    /**
+     * Constructs empty rows.
+     *
+     * @param theCapacity the rows there should be room for
+     * @param theOrderCapacity the orders there should be room for
+     */
+    HeapMessageRows(final int theCapacity, final int theOrderCapacity) {
+        this(theCapacity, new short[theOrderCapacity]);
+    }
+
+    /**
+     * Constructs empty rows with a given order area.
+     *
+     * @param theCapacity the rows there should be room for
+     * @param theOrders the order area
+     */
+    private HeapMessageRows(final int theCapacity, final short[] theOrders) {
+        super();
+        myTimes = new int[theCapacity];
+        myKinds = new byte[theCapacity];
+        myRacers = new short[theCapacity];
+        myValues = new int[theCapacity];
+        myLaps = new short[theCapacity];
+        myOrders = theOrders;
+    }
+
+    /**
+     * Constructs a larger copy of other rows. Only the arrays which must grow are
+     * copied; growing the orders alone keeps the row arrays, and the other way round.
+     *
+     * @param theOld the rows to copy
+     * @param theCapacity the rows there should be room for
+     * @param theOrderCapacity the orders there should be room for
+     */
+    private HeapMessageRows(final HeapMessageRows theOld, final int theCapacity,
+                            final int theOrderCapacity) {
+        super();
+        if (theCapacity == theOld.capacity()) {
+            myTimes = theOld.myTimes;
+            myKinds = theOld.myKinds;
+            myRacers = theOld.myRacers;
+            myValues = theOld.myValues;
+            myLaps = theOld.myLaps;
+        } else {
+            myTimes = Arrays.copyOf(theOld.myTimes, theCapacity);
+            myKinds = Arrays.copyOf(theOld.myKinds, theCapacity);
+            myRacers = Arrays.copyOf(theOld.myRacers, theCapacity);
+            myValues = Arrays.copyOf(theOld.myValues, theCapacity);
+            myLaps = Arrays.copyOf(theOld.myLaps, theCapacity);
+        }
+        if (theOrderCapacity == theOld.orderCapacity()) {
+            myOrders = theOld.myOrders;
+        } else {
+            myOrders = Arrays.copyOf(theOld.myOrders, theOrderCapacity);
+        }
+    }
+
+    @Override
+    int capacity() {
+        return myTimes.length;
+    }
+
+    @Override
+    int orderCapacity() {
+        return myOrders.length;
+    }
+
+    @Override
+    int time(final int theRow) {
+        return myTimes[theRow];
+    }
+
+    @Override
+    byte kind(final int theRow) {
+        return myKinds[theRow];
+    }
+
+    @Override
+    short racer(final int theRow) {
+        return myRacers[theRow];
+    }
+
+    @Override
+    int value(final int theRow) {
+        return myValues[theRow];
+    }
+
+    @Override
+    short lap(final int theRow) {
+        return myLaps[theRow];
+    }
+
+    @Override
+    void set(final int theRow, final int theTime, final byte theKind, final short theRacer,
+             final int theValue, final short theLap) {
+        myTimes[theRow] = theTime;
+        myKinds[theRow] = theKind;
+        myRacers[theRow] = theRacer;
+        myValues[theRow] = theValue;
+        myLaps[theRow] = theLap;
+    }
+
+    @Override
+    short order(final int theIndex) {
+        return myOrders[theIndex];
+    }
+
+    @Override
+    void setOrder(final int theIndex, final short theRacer) {
+        myOrders[theIndex] = theRacer;
+    }
+
+    @Override
+    MessageRows grow(final int theCapacity, final int theOrderCapacity) {
+        return new HeapMessageRows(this, Math.max(theCapacity, capacity()),
+                                   Math.max(theOrderCapacity, orderCapacity()));
+    }
+
+    @Override
+    MessageRows withEmptyRows() {
+        return new HeapMessageRows(capacity(), myOrders);
+    }
+
+    @Override
+    MessageRows empty(final int theCapacity, final int theOrderCapacity) {
+        return new HeapMessageRows(theCapacity, theOrderCapacity);
+    }
+}
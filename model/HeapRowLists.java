@@ -0,0 +1,56 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * This program keeps RowLists on the heap, one primitive array per list, doubled
+ * whenever it fills.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+final class HeapRowLists extends RowLists {
+
+    /** The fewest entries room is made for, per list. */
+    private static final int MIN_CAPACITY = 16;
+
+    /** The entries of each list. */
+    private final int[][] myLists;
+
+    /**
+     * Constructs empty lists.
+     *
+     * @param theLists the number of lists
+     */
+    HeapRowLists(final int theLists) {
+        this(new int[theLists][MIN_CAPACITY]);
+    }
+
+    /**
+     * Constructs lists holding the given arrays.
+     *
+     * @param theLists the entries of each list
+     */
+    private HeapRowLists(final int[][] theLists) {
+        super();
+        myLists = theLists;
+    }
+
+    @Override
+    int get(final int theList, final int theIndex) {
+        return myLists[theList][theIndex];
+    }
+
+    @Override
+    void add(final int theList, final int theIndex, final int theRow) {
+        if (theIndex == myLists[theList].length) {
+            myLists[theList] = Arrays.copyOf(myLists[theList], myLists[theList].length * 2);
+        }
+        myLists[theList][theIndex] = theRow;
+    }
+
+    @Override
+    RowLists snapshot() {
+        return new HeapRowLists(myLists.clone());
+    }
+}
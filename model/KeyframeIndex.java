@@ -0,0 +1,190 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * This program holds periodic snapshots of race state so a seek does not have to replay
+ * the race from the start. The state as of a race time is, for every racer, the last
+ * telemetry and line crossing message before that time, plus the last leaderboard, each
+ * held as the index of its row in a MessageStore. A keyframe is kept every interval of
+ * race time; the state at any other time is its keyframe plus at most one interval of
+ * messages.
+ *
+ * Keyframes are added by the loading thread as messages are loaded, and read on the
+ * model thread, which only ever asks for times already loaded.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+final class KeyframeIndex {
+
+    /** Row index held for a message that has not happened yet. */
+    static final int NONE = -1;
+
+    /** Position of the last leaderboard in a state. */
+    private static final int LEADERBOARD = 0;
+
+    /** The fewest keyframes room is made for. */
+    private static final int MIN_CAPACITY = 16;
+
+    /** The number of racers. */
+    private final int myRacers;
+
+    /** Race milliseconds between keyframes. */
+    private final int myInterval;
+
+    /** The state at each multiple of the interval. */
+    private volatile int[][] myFrames;
+
+    /** The number of keyframes readers may see. */
+    private volatile int myCount;
+
+    /** The state as of the last scanned message. */
+    private final int[] myState;
+
+    /** The number of messages scanned into keyframes. */
+    private int myScanned;
+
+    /**
+     * Constructs a KeyframeIndex with only the empty state at time 0.
+     *
+     * @param theRacers the number of racers
+     * @param theInterval race milliseconds between keyframes
+     */
+    KeyframeIndex(final int theRacers, final int theInterval) {
+        myRacers = theRacers;
+        myInterval = theInterval;
+        myState = new int[1 + 2 * theRacers];
+        Arrays.fill(myState, NONE);
+        myFrames = new int[MIN_CAPACITY][];
+        addFrame();
+    }
+
+    /**
+     * Returns race milliseconds between keyframes.
+     *
+     * @return the keyframe interval
+     */
+    int getInterval() {
+        return myInterval;
+    }
+
+    /**
+     * Adds keyframes up to a race time before which every message is stored and
+     * published, and will not move. Called on the loading thread only.
+     *
+     * @param theStore the store the messages are in
+     * @param theLoadedTo the race time before which every message is loaded
+     */
+    void extend(final MessageStore theStore, final int theLoadedTo) {
+        final int size = theStore.size();
+        int next = myCount * myInterval;
+        while (myScanned < size && theStore.getTime(myScanned) < theLoadedTo) {
+            while (theStore.getTime(myScanned) >= next) {
+                addFrame();
+                next += myInterval;
+            }
+            apply(theStore, myState, myScanned);
+            myScanned++;
+        }
+        while (next <= theLoadedTo) {
+            addFrame();
+            next += myInterval;
+        }
+    }
+
+    /**
+     * Returns the state as of a race time: the nearest keyframe at or before it,
+     * brought up to date with the messages between the two.
+     *
+     * @param theStore the store the messages are in
+     * @param theTime a loaded race time
+     * @return the state as of theTime
+     */
+    int[] stateAt(final MessageStore theStore, final int theTime) {
+        final int count = myCount;
+        final int[][] frames = myFrames;
+        final int frame = Math.min(count - 1, theTime / myInterval);
+        final int[] state = frames[frame].clone();
+        final int end = theStore.firstIndexAt(theTime);
+        for (int i = theStore.firstIndexAt(frame * myInterval); i < end; i++) {
+            apply(theStore, state, i);
+        }
+        return state;
+    }
+
+    /**
+     * Returns the number of racers in a state.
+     *
+     * @return the number of racers
+     */
+    int getRacerCount() {
+        return myRacers;
+    }
+
+    /**
+     * Returns the row of the last leaderboard in a state.
+     *
+     * @param theState a state from stateAt
+     * @return the row index, or NONE
+     */
+    int leaderboard(final int[] theState) {
+        return theState[LEADERBOARD];
+    }
+
+    /**
+     * Returns the row of a racer's last telemetry in a state.
+     *
+     * @param theState a state from stateAt
+     * @param theRacer the racer index
+     * @return the row index, or NONE
+     */
+    int telemetry(final int[] theState, final int theRacer) {
+        return theState[1 + theRacer];
+    }
+
+    /**
+     * Returns the row of a racer's last line crossing in a state.
+     *
+     * @param theState a state from stateAt
+     * @param theRacer the racer index
+     * @return the row index, or NONE
+     */
+    int crossing(final int[] theState, final int theRacer) {
+        return theState[1 + myRacers + theRacer];
+    }
+
+    /**
+     * Brings a state up to date with one message.
+     *
+     * @param theStore the store the message is in
+     * @param theState the state to change
+     * @param theIndex the row index of the message
+     */
+    private void apply(final MessageStore theStore, final int[] theState, final int theIndex) {
+        final int tag = theStore.getTag(theIndex);
+        if (tag == Message.LEADERBOARD) {
+            theState[LEADERBOARD] = theIndex;
+        } else {
+            final int racer = theStore.getRacer(theIndex);
+            if (racer >= 0 && tag == Message.TELEMETRY) {
+                theState[1 + racer] = theIndex;
+            } else if (racer >= 0 && tag == Message.CROSSING) {
+                theState[1 + myRacers + racer] = theIndex;
+            }
+        }
+    }
+
+    /**
+     * Publishes a copy of the current state as the next keyframe.
+     */
+    private void addFrame() {
+        int[][] frames = myFrames;
+        if (myCount == frames.length) {
+            frames = Arrays.copyOf(frames, frames.length * 2);
+            myFrames = frames;
+        }
+        frames[myCount] = myState.clone();
+        myCount++;
+    }
+}
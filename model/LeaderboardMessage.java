@@ -4,7 +4,7 @@ package model;
  * This program represents a leaderboard message from a race.
  * 
  * @author Conner Canning
- * @version 7 March 2019
+ * @version 17 October 2026
  */
 public final class LeaderboardMessage extends AbstractMessage {
     
@@ -17,16 +17,40 @@ public final class LeaderboardMessage extends AbstractMessage {
     /** Stores the order of racers that this leaderboard message describes. */
     private final String[] myOrder;
     
+    /** Stores the same order of racers as numeric racer ids. */
+    private final int[] myRacerIDs;
+    
 
     /**
      * Constructs a LeaderboardMessage object. 
      * 
      * @param theTimeStamp the time for this leaderboard message
      * @param theIDs the ordered array containing racer ids in their race positions
+     * @throws NumberFormatException if a racer id is not an integer
      */
     public LeaderboardMessage(final int theTimeStamp, final String[] theIDs) {
         super(MY_TYPE, theTimeStamp);
         myOrder = theIDs.clone();
+        myRacerIDs = new int[myOrder.length];
+        for (int i = 0; i < myOrder.length; i++) {
+            myRacerIDs[i] = Integer.parseInt(myOrder[i]);
+        }
+    }
+    
+    /**
+     * Constructs a LeaderboardMessage from an order held both as racer ids and as 
+     * the same ids in strings, without copying or parsing either. Nothing may change
+     * the arrays afterwards.
+     * 
+     * @param theTimeStamp the time for this leaderboard message
+     * @param theRacerIDs the racer ids in their race positions
+     * @param theIDs the same racer ids as strings
+     */
+    LeaderboardMessage(final int theTimeStamp, final int[] theRacerIDs, 
+                       final String[] theIDs) {
+        super(MY_TYPE, theTimeStamp);
+        myRacerIDs = theRacerIDs;
+        myOrder = theIDs;
     }
     
     /**
@@ -38,6 +62,38 @@ public final class LeaderboardMessage extends AbstractMessage {
         return myOrder.clone();
     }
     
+    /**
+     * Returns the number of racers in the order, without copying it.
+     * 
+     * @return the number of racers in the order
+     */
+    public int getOrderSize() {
+        return myOrder.length;
+    }
+    
+    /**
+     * Returns the id of the racer in a race position, without copying the order.
+     * 
+     * @param thePosition the race position, from 0 for the leader
+     * @return the id of the racer in that position
+     * @throws IndexOutOfBoundsException if there is no such position
+     */
+    public String getOrderID(final int thePosition) {
+        return myOrder[thePosition];
+    }
+    
+    /**
+     * Returns the racer id of the racer in a race position, as a number, without
+     * copying the order.
+     * 
+     * @param thePosition the race position, from 0 for the leader
+     * @return the racer id of the racer in that position
+     * @throws IndexOutOfBoundsException if there is no such position
+     */
+    public int getOrderRacerID(final int thePosition) {
+        return myRacerIDs[thePosition];
+    }
+    
     /**
      * Returns a String representation of this LeaderboardMessage.
      * 
@@ -53,5 +109,25 @@ public final class LeaderboardMessage extends AbstractMessage {
         return sb.toString();
     }
     
+    /**
+     * Returns the type tag of this message.
+     * 
+     * @return the type tag for this message
+     */
+    @Override
+    public int getTag() {
+        return Message.LEADERBOARD;
+    }
+    
+    /**
+     * Calls the method of a visitor which handles this type of message.
+     * 
+     * @param theVisitor the visitor to handle this message
+     */
+    @Override
+    public void accept(final MessageVisitor theVisitor) {
+        theVisitor.visitLeaderboard(this);
+    }
+    
     
 }
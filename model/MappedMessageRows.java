@@ -0,0 +1,287 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * This program keeps MessageStore rows off the heap, in memory mapped scratch files, so
+ * a race may hold far more messages than the heap could. Each row is a 16 byte record:
+ *
+ * <pre>
+ * 0  int   time stamp
+ * 4  byte  message kind
+ * 6  short racer index
+ * 8  int   kind specific value
+ * 12 short lap
+ * </pre>
+ *
+ * Rows and leaderboard orders live in fixed size segments, each mapping its own scratch
+ * file, except that the last segment is only as large as the capacity asked for, so
+ * small rows, such as those of one parsed chunk, map no more than they hold. Growing
+ * enlarges the last segment and maps more, copying at most one segment of rows.
+ * Scratch files are deleted as soon as they are mapped where the system allows it, so
+ * their space goes back once the segment is garbage; elsewhere they are deleted when
+ * the program exits. The operating system pages segments in and out of memory as
+ * playback needs them.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+final class MappedMessageRows extends MessageRows {
+
+    /** Log base 2 of the rows in one segment. */
+    private static final int ROW_SHIFT = 22;
+
+    /** The rows in one segment. */
+    private static final int SEGMENT_ROWS = 1 << ROW_SHIFT;
+
+    /** Mask of a row's position in its segment. */
+    private static final int ROW_MASK = SEGMENT_ROWS - 1;
+
+    /** Bytes in one row. */
+    private static final int ROW_BYTES = 16;
+
+    /** Offset of the message kind in a row. */
+    private static final int KIND = 4;
+
+    /** Offset of the racer index in a row. */
+    private static final int RACER = 6;
+
+    /** Offset of the value in a row. */
+    private static final int VALUE = 8;
+
+    /** Offset of the lap in a row. */
+    private static final int LAP = 12;
+
+    /** Log base 2 of the leaderboard racer indexes in one segment. */
+    private static final int ORDER_SHIFT = 25;
+
+    /** The leaderboard racer indexes in one segment. */
+    private static final int SEGMENT_ORDERS = 1 << ORDER_SHIFT;
+
+    /** Mask of a racer index's position in its segment. */
+    private static final int ORDER_MASK = SEGMENT_ORDERS - 1;
+
+    /** Row segments. */
+    private final ByteBuffer[] myRows;
+
+    /** Leaderboard order segments. */
+    private final ByteBuffer[] myOrders;
+
+    /**
+     * Constructs empty rows.
+     *
+     * @param theCapacity the rows there should be room for
+     * @param theOrderCapacity the orders there should be room for
+     * @throws IOException if a scratch file can not be mapped
+     */
+    MappedMessageRows(final int theCapacity, final int theOrderCapacity) throws IOException {
+        this(mapSegments(new ByteBuffer[0], (long) theCapacity * ROW_BYTES,
+                         SEGMENT_ROWS * ROW_BYTES),
+             mapSegments(new ByteBuffer[0], (long) theOrderCapacity * Short.BYTES,
+                         SEGMENT_ORDERS * Short.BYTES));
+    }
+
+    /**
+     * Constructs rows from mapped segments.
+     *
+     * @param theRows row segments
+     * @param theOrders leaderboard order segments
+     */
+    private MappedMessageRows(final ByteBuffer[] theRows, final ByteBuffer[] theOrders) {
+        super();
+        myRows = theRows;
+        myOrders = theOrders;
+    }
+
+    /**
+     * Returns segments holding at least a number of bytes: the given segments, their
+     * last one enlarged if it is too short, followed by newly mapped ones. Every segment
+     * but the last is full size, and a newly mapped last one is only as large as needed.
+     *
+     * @param theOld the segments already mapped
+     * @param theBytes the number of bytes wanted in all
+     * @param theSegmentBytes the size of one full segment
+     * @return the segments
+     * @throws IOException if a scratch file can not be mapped
+     */
+    private static ByteBuffer[] mapSegments(final ByteBuffer[] theOld, final long theBytes,
+                                            final int theSegmentBytes) throws IOException {
+        final int count = (int) ((theBytes + theSegmentBytes - 1) / theSegmentBytes);
+        final ByteBuffer[] segments = Arrays.copyOf(theOld, Math.max(theOld.length, count));
+        for (int i = Math.max(0, theOld.length - 1); i < count; i++) {
+            final int bytes = (int) Math.min(theSegmentBytes,
+                                             theBytes - (long) i * theSegmentBytes);
+            if (segments[i] == null) {
+                segments[i] = map(bytes);
+            } else if (segments[i].capacity() < bytes) {
+                final ByteBuffer enlarged = map(bytes);
+                enlarged.put(0, segments[i], 0, segments[i].capacity());
+                segments[i] = enlarged;
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Maps a new scratch file.
+     *
+     * @param theBytes the size of the scratch file
+     * @return the mapped scratch file
+     * @throws IOException if the scratch file can not be mapped
+     */
+    static ByteBuffer map(final int theBytes) throws IOException {
+        final File scratch = File.createTempFile("race", ".rows");
+        scratch.deleteOnExit();
+        final ByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(scratch.toPath(),
+                                                    StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, theBytes)
+                             .order(ByteOrder.nativeOrder());
+        }
+        // the mapping keeps the space until it is garbage, on systems which allow this
+        scratch.delete();
+        return segment;
+    }
+
+    /**
+     * Returns the number of bytes segments hold.
+     *
+     * @param theSegments the segments
+     * @param theSegmentBytes the size of one full segment
+     * @return the number of bytes in every segment together
+     */
+    private static long bytes(final ByteBuffer[] theSegments, final int theSegmentBytes) {
+        long bytes = 0;
+        if (theSegments.length > 0) {
+            bytes = (long) (theSegments.length - 1) * theSegmentBytes
+                    + theSegments[theSegments.length - 1].capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the offset of a row in its segment.
+     *
+     * @param theRow the row
+     * @return the byte offset of the row
+     */
+    private static int offset(final int theRow) {
+        return (theRow & ROW_MASK) * ROW_BYTES;
+    }
+
+    @Override
+    int capacity() {
+        return (int) Math.min(Integer.MAX_VALUE,
+                              bytes(myRows, SEGMENT_ROWS * ROW_BYTES) / ROW_BYTES);
+    }
+
+    @Override
+    int orderCapacity() {
+        return (int) Math.min(Integer.MAX_VALUE,
+                              bytes(myOrders, SEGMENT_ORDERS * Short.BYTES) / Short.BYTES);
+    }
+
+    @Override
+    int time(final int theRow) {
+        return myRows[theRow >>> ROW_SHIFT].getInt(offset(theRow));
+    }
+
+    @Override
+    byte kind(final int theRow) {
+        return myRows[theRow >>> ROW_SHIFT].get(offset(theRow) + KIND);
+    }
+
+    @Override
+    short racer(final int theRow) {
+        return myRows[theRow >>> ROW_SHIFT].getShort(offset(theRow) + RACER);
+    }
+
+    @Override
+    int value(final int theRow) {
+        return myRows[theRow >>> ROW_SHIFT].getInt(offset(theRow) + VALUE);
+    }
+
+    @Override
+    short lap(final int theRow) {
+        return myRows[theRow >>> ROW_SHIFT].getShort(offset(theRow) + LAP);
+    }
+
+    @Override
+    void set(final int theRow, final int theTime, final byte theKind, final short theRacer,
+             final int theValue, final short theLap) {
+        final ByteBuffer segment = myRows[theRow >>> ROW_SHIFT];
+        final int offset = offset(theRow);
+        segment.putInt(offset, theTime);
+        segment.put(offset + KIND, theKind);
+        segment.putShort(offset + RACER, theRacer);
+        segment.putInt(offset + VALUE, theValue);
+        segment.putShort(offset + LAP, theLap);
+    }
+
+    @Override
+    short order(final int theIndex) {
+        return myOrders[theIndex >>> ORDER_SHIFT].getShort((theIndex & ORDER_MASK) * Short.BYTES);
+    }
+
+    @Override
+    void setOrder(final int theIndex, final short theRacer) {
+        myOrders[theIndex >>> ORDER_SHIFT].putShort((theIndex & ORDER_MASK) * Short.BYTES,
+                                                    theRacer);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException if a scratch file can not be mapped
+     */
+    @Override
+    MessageRows grow(final int theCapacity, final int theOrderCapacity) {
+        try {
+            return new MappedMessageRows(
+                mapSegments(myRows, (long) theCapacity * ROW_BYTES, SEGMENT_ROWS * ROW_BYTES),
+                mapSegments(myOrders, (long) theOrderCapacity * Short.BYTES,
+                            SEGMENT_ORDERS * Short.BYTES));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException if a scratch file can not be mapped
+     */
+    @Override
+    MessageRows withEmptyRows() {
+        try {
+            return new MappedMessageRows(
+                mapSegments(new ByteBuffer[0], bytes(myRows, SEGMENT_ROWS * ROW_BYTES),
+                            SEGMENT_ROWS * ROW_BYTES),
+                myOrders);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException if a scratch file can not be mapped
+     */
+    @Override
+    MessageRows empty(final int theCapacity, final int theOrderCapacity) {
+        try {
+            return new MappedMessageRows(theCapacity, theOrderCapacity);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
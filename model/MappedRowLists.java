@@ -0,0 +1,132 @@
+package model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This program keeps RowLists off the heap, in the memory mapped scratch files
+ * MappedMessageRows uses, so indexing a race kept off the heap does not put one int per
+ * message back on it. Every list is a chain of fixed size blocks handed out in turn from
+ * mapped segments; the heap only holds each list's block numbers, one per block of
+ * entries. Blocks never move, so growing never copies entries.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+final class MappedRowLists extends RowLists {
+
+    /** Log base 2 of the entries in one block. */
+    private static final int BLOCK_SHIFT = 8;
+
+    /** Mask of an entry's position in its block. */
+    private static final int BLOCK_MASK = (1 << BLOCK_SHIFT) - 1;
+
+    /** Log base 2 of the blocks in one segment. */
+    private static final int SEGMENT_SHIFT = 14;
+
+    /** Mask of a block's position in its segment. */
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    /** Bytes in one segment. */
+    private static final int SEGMENT_BYTES = Integer.BYTES << BLOCK_SHIFT << SEGMENT_SHIFT;
+
+    /** The fewest block numbers room is made for, per list. */
+    private static final int MIN_BLOCKS = 4;
+
+    /** The block numbers of each list, in order. */
+    private final int[][] myBlocks;
+
+    /** The mapped segments blocks are handed out from. */
+    private ByteBuffer[] mySegments;
+
+    /** The number of blocks handed out. */
+    private int myBlockCount;
+
+    /**
+     * Constructs empty lists. Nothing is mapped until the first entry is added.
+     *
+     * @param theLists the number of lists
+     */
+    MappedRowLists(final int theLists) {
+        this(new int[theLists][MIN_BLOCKS], new ByteBuffer[0], 0);
+    }
+
+    /**
+     * Constructs lists from the given blocks.
+     *
+     * @param theBlocks the block numbers of each list
+     * @param theSegments the mapped segments
+     * @param theBlockCount the number of blocks handed out
+     */
+    private MappedRowLists(final int[][] theBlocks, final ByteBuffer[] theSegments,
+                           final int theBlockCount) {
+        super();
+        myBlocks = theBlocks;
+        mySegments = theSegments;
+        myBlockCount = theBlockCount;
+    }
+
+    @Override
+    int get(final int theList, final int theIndex) {
+        final int block = myBlocks[theList][theIndex >>> BLOCK_SHIFT];
+        return mySegments[block >>> SEGMENT_SHIFT].getInt(offset(block, theIndex));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException if a scratch file can not be mapped
+     */
+    @Override
+    void add(final int theList, final int theIndex, final int theRow) {
+        if ((theIndex & BLOCK_MASK) == 0) {
+            final int number = theIndex >>> BLOCK_SHIFT;
+            if (number == myBlocks[theList].length) {
+                myBlocks[theList] = Arrays.copyOf(myBlocks[theList], number * 2);
+            }
+            myBlocks[theList][number] = newBlock();
+        }
+        final int block = myBlocks[theList][theIndex >>> BLOCK_SHIFT];
+        mySegments[block >>> SEGMENT_SHIFT].putInt(offset(block, theIndex), theRow);
+    }
+
+    /**
+     * Hands out the next free block, mapping another segment when every one is used.
+     *
+     * @return the block number
+     * @throws UncheckedIOException if a scratch file can not be mapped
+     */
+    private int newBlock() {
+        if (myBlockCount >>> SEGMENT_SHIFT == mySegments.length) {
+            try {
+                final ByteBuffer[] segments = Arrays.copyOf(mySegments, mySegments.length + 1);
+                segments[mySegments.length] = MappedMessageRows.map(SEGMENT_BYTES);
+                mySegments = segments;
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        final int block = myBlockCount;
+        myBlockCount++;
+        return block;
+    }
+
+    /**
+     * Returns the offset of an entry in its segment.
+     *
+     * @param theBlock the number of the block holding the entry
+     * @param theIndex the position of the entry in its list
+     * @return the byte offset of the entry
+     */
+    private static int offset(final int theBlock, final int theIndex) {
+        return ((theBlock & SEGMENT_MASK) << BLOCK_SHIFT | theIndex & BLOCK_MASK)
+               * Integer.BYTES;
+    }
+
+    @Override
+    RowLists snapshot() {
+        return new MappedRowLists(myBlocks.clone(), mySegments, myBlockCount);
+    }
+}
@@ -17,6 +17,15 @@ public interface Message {
     /** The beginning string which identifies a Finish Line Message. */
     String CROSSING_START = "$C";
     
+    /** The type tag of a Telemetry Message. */
+    int TELEMETRY = 0;
+    
+    /** The type tag of a Finish Line Message. */
+    int CROSSING = 1;
+    
+    /** The type tag of a Leaderboard Message. */
+    int LEADERBOARD = 2;
+    
     /**
      * Returns a String representation of this Message.
      * 
@@ -30,5 +39,27 @@ public interface Message {
      * @return String identifying this message
      */
     String getType();
+    
+    /**
+     * Returns the type tag of this message, which can be compared without 
+     * comparing strings.
+     * 
+     * @return one of the type tags found in this interface
+     */
+    int getTag();
+    
+    /**
+     * Calls the method of a visitor which handles messages of this type.
+     * 
+     * @param theVisitor the visitor to handle this message
+     */
+    void accept(MessageVisitor theVisitor);
+    
+    /**
+     * Returns the time stamp of this message.
+     * 
+     * @return the race time this message happened at, in milliseconds
+     */
+    int getTime();
 
 }
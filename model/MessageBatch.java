@@ -0,0 +1,65 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * This program holds the messages sent by one model time change, in the order they
+ * would otherwise have been sent one at a time. A batch never changes once sent.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public final class MessageBatch implements Iterable<Message> {
+
+    /** The messages, of which the first mySize are in the batch. */
+    private final Message[] myMessages;
+
+    /** The number of messages in the batch. */
+    private final int mySize;
+
+    /**
+     * Constructs a MessageBatch holding the first messages of an array, which
+     * nothing else may change afterwards.
+     *
+     * @param theMessages the array holding the messages
+     * @param theSize the number of messages in the batch
+     */
+    MessageBatch(final Message[] theMessages, final int theSize) {
+        myMessages = theMessages;
+        mySize = theSize;
+    }
+
+    /**
+     * Returns the number of messages in this batch.
+     *
+     * @return the number of messages
+     */
+    public int size() {
+        return mySize;
+    }
+
+    /**
+     * Returns a message of this batch.
+     *
+     * @param theIndex the position of the message in the batch
+     * @return the message
+     * @throws IndexOutOfBoundsException if theIndex is not a position in the batch
+     */
+    public Message get(final int theIndex) {
+        if (theIndex < 0 || theIndex >= mySize) {
+            throw new IndexOutOfBoundsException(theIndex);
+        }
+        return myMessages[theIndex];
+    }
+
+    /**
+     * Returns an iterator over the messages of this batch, which can not remove them.
+     *
+     * @return an iterator over the messages
+     */
+    @Override
+    public Iterator<Message> iterator() {
+        return Arrays.asList(myMessages).subList(0, mySize).iterator();
+    }
+}
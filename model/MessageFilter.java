@@ -0,0 +1,163 @@
+package model;
+
+/**
+ * This program decides which stored messages are sent to listeners. Racers are toggled
+ * off by racer index in a bitset and message types by type tag in a mask, so testing a
+ * stored message only reads its row and a bit or two; no message is built and no racer
+ * ID is boxed. A racer toggled off only hides its telemetry, as RaceControls describes.
+ *
+ * A filter is only used on the model thread.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+final class MessageFilter {
+
+    /** Bits of a long, as a shift. */
+    private static final int LONG_SHIFT = 6;
+
+    /** The mask with every message type on. */
+    private static final int ALL_TYPES =
+                    1 << Message.TELEMETRY | 1 << Message.CROSSING | 1 << Message.LEADERBOARD;
+
+    /** A bit for each racer index which is set while the racer is toggled off. */
+    private long[] myRacersOff;
+
+    /** The number of racers. */
+    private int myRacerCount;
+
+    /** The number of racers toggled off. */
+    private int myOffCount;
+
+    /** A bit for each message type tag which is set while the type is shown. */
+    private int myTypes;
+
+    /**
+     * Constructs a filter for a race with no racers, showing every message type.
+     */
+    MessageFilter() {
+        myRacersOff = new long[0];
+        myTypes = ALL_TYPES;
+    }
+
+    /**
+     * Toggles every racer on for a new race. Message types stay as they were.
+     *
+     * @param theRacers the number of racers in the race
+     */
+    void reset(final int theRacers) {
+        myRacersOff = new long[(theRacers + Long.SIZE - 1) >>> LONG_SHIFT];
+        myRacerCount = theRacers;
+        myOffCount = 0;
+    }
+
+    /**
+     * Toggles a racer's telemetry on or off.
+     *
+     * @param theRacer the racer index
+     * @param theOn true to show the racer's telemetry, false to hide it
+     * @return true if the racer was toggled the other way before, false otherwise
+     */
+    boolean setRacer(final int theRacer, final boolean theOn) {
+        final boolean changed = isRacerOn(theRacer) != theOn;
+        if (changed) {
+            myRacersOff[theRacer >>> LONG_SHIFT] ^= 1L << theRacer;
+            myOffCount += theOn ? -1 : 1;
+        }
+        return changed;
+    }
+
+    /**
+     * Returns whether a racer is toggled on.
+     *
+     * @param theRacer the racer index
+     * @return true if the racer's telemetry is shown, false otherwise
+     */
+    boolean isRacerOn(final int theRacer) {
+        return (myRacersOff[theRacer >>> LONG_SHIFT] & 1L << theRacer) == 0;
+    }
+
+    /**
+     * Shows or hides every message of a type.
+     *
+     * @param theTag the message type tag, one of the Message type tags
+     * @param theOn true to show the messages, false to hide them
+     * @throws IllegalArgumentException if theTag is not a message type tag
+     */
+    void setType(final int theTag, final boolean theOn) {
+        checkType(theTag);
+        if (theOn) {
+            myTypes |= 1 << theTag;
+        } else {
+            myTypes &= ~(1 << theTag);
+        }
+    }
+
+    /**
+     * Checks that a number is a message type tag.
+     *
+     * @param theTag the number
+     * @throws IllegalArgumentException if theTag is not a message type tag
+     */
+    static void checkType(final int theTag) {
+        if (theTag < 0 || theTag >= Integer.SIZE || (ALL_TYPES & 1 << theTag) == 0) {
+            throw new IllegalArgumentException("Not a message type tag: " + theTag);
+        }
+    }
+
+    /**
+     * Returns whether messages of a type are shown.
+     *
+     * @param theTag the message type tag
+     * @return true if messages of the type are shown, false otherwise
+     */
+    boolean isTypeOn(final int theTag) {
+        return (myTypes & 1 << theTag) != 0;
+    }
+
+    /**
+     * Returns whether a racer's telemetry is shown, both the racer and telemetry
+     * being toggled on.
+     *
+     * @param theRacer the racer index
+     * @return true if the racer's telemetry is shown, false otherwise
+     */
+    boolean showsTelemetry(final int theRacer) {
+        return isTypeOn(Message.TELEMETRY) && isRacerOn(theRacer);
+    }
+
+    /**
+     * Returns the number of racers whose telemetry is shown.
+     *
+     * @return the number of racers whose telemetry is shown
+     */
+    int getShownRacers() {
+        return isTypeOn(Message.TELEMETRY) ? myRacerCount - myOffCount : 0;
+    }
+
+    /**
+     * Returns the number of racers.
+     *
+     * @return the number of racers
+     */
+    int getRacerCount() {
+        return myRacerCount;
+    }
+
+    /**
+     * Returns whether a stored message is shown, without building it.
+     *
+     * @param theStore the store the message is in
+     * @param theIndex the index of the message
+     * @return true if the message is shown, false otherwise
+     */
+    boolean accepts(final MessageStore theStore, final int theIndex) {
+        final int tag = theStore.getTag(theIndex);
+        boolean accepted = isTypeOn(tag);
+        if (accepted && tag == Message.TELEMETRY) {
+            final int racer = theStore.getRacer(theIndex);
+            accepted = racer < 0 || isRacerOn(racer);
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,136 @@
+package model;
+
+/**
+ * This program holds the rows a MessageStore keeps its messages in. Every message is one
+ * fixed layout row of time stamp, kind, racer index, value and lap, and every leaderboard
+ * also takes a run of racer indexes in a separate order area. Rows may live on the heap
+ * or off it; either way a reader holding rows from before they grew still reads every
+ * row and order written before.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+abstract class MessageRows {
+
+    /**
+     * Returns the number of rows there is room for.
+     *
+     * @return the row capacity
+     */
+    abstract int capacity();
+
+    /**
+     * Returns the number of leaderboard racer indexes there is room for.
+     *
+     * @return the order capacity
+     */
+    abstract int orderCapacity();
+
+    /**
+     * Returns the time stamp of a row.
+     *
+     * @param theRow the row
+     * @return the time stamp
+     */
+    abstract int time(int theRow);
+
+    /**
+     * Returns the kind of message a row holds.
+     *
+     * @param theRow the row
+     * @return the message kind
+     */
+    abstract byte kind(int theRow);
+
+    /**
+     * Returns the racer index of a row.
+     *
+     * @param theRow the row
+     * @return the racer index
+     */
+    abstract short racer(int theRow);
+
+    /**
+     * Returns the kind specific value of a row.
+     *
+     * @param theRow the row
+     * @return the value
+     */
+    abstract int value(int theRow);
+
+    /**
+     * Returns the lap of a row.
+     *
+     * @param theRow the row
+     * @return the lap
+     */
+    abstract short lap(int theRow);
+
+    /**
+     * Writes one row.
+     *
+     * @param theRow the row
+     * @param theTime the time stamp
+     * @param theKind the message kind
+     * @param theRacer the racer index
+     * @param theValue the kind specific value
+     * @param theLap the lap
+     */
+    abstract void set(int theRow, int theTime, byte theKind, short theRacer, int theValue,
+                      short theLap);
+
+    /**
+     * Returns one leaderboard racer index from the order area.
+     *
+     * @param theIndex the position in the order area
+     * @return the racer index
+     */
+    abstract short order(int theIndex);
+
+    /**
+     * Writes one leaderboard racer index to the order area.
+     *
+     * @param theIndex the position in the order area
+     * @param theRacer the racer index
+     */
+    abstract void setOrder(int theIndex, short theRacer);
+
+    /**
+     * Returns rows holding everything written to these, with room for at least the
+     * given number of rows and orders. These rows must not be written to afterwards.
+     *
+     * @param theCapacity the rows that must fit
+     * @param theOrderCapacity the orders that must fit
+     * @return the larger rows
+     */
+    abstract MessageRows grow(int theCapacity, int theOrderCapacity);
+
+    /**
+     * Returns rows with the same capacity and the same order area as these,
+     * but empty rows, kept in the same place as these.
+     *
+     * @return rows sharing this order area
+     */
+    abstract MessageRows withEmptyRows();
+
+    /**
+     * Returns empty rows kept in the same place as these.
+     *
+     * @param theCapacity the rows there should be room for
+     * @param theOrderCapacity the orders there should be room for
+     * @return empty rows
+     */
+    abstract MessageRows empty(int theCapacity, int theOrderCapacity);
+
+    /**
+     * Copies one row to a row of other, or these, rows.
+     *
+     * @param theRow the row to copy
+     * @param theOut the rows to copy to
+     * @param theOutRow the row to copy to
+     */
+    void copy(final int theRow, final MessageRows theOut, final int theOutRow) {
+        theOut.set(theOutRow, time(theRow), kind(theRow), racer(theRow), value(theRow),
+                   lap(theRow));
+    }
+}
@@ -0,0 +1,566 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * This program holds the messages of a race sorted by time stamp. Every message is one
+ * fixed layout row in a MessageRows, so the messages in any stretch of race time are
+ * found with a binary search over time stamps and then read as one contiguous run.
+ * Memory grows with the number of messages rather than with the length of the race.
+ *
+ * Messages are not kept as objects: a telemetry row holds its racer, distance in
+ * hundredths and lap, a crossing row its racer, lap and finished flag, and a leaderboard
+ * row points to a run of racer indexes. The Message is only built when one is asked for.
+ * A message whose lap does not fit a row is kept as an object instead.
+ *
+ * Messages are appended by one loading thread and become visible to readers when it calls
+ * publish() or publishBefore(). While a race streams in, readers on another thread may read
+ * every published message, since appends are then moved straight into time order behind
+ * the published ones and rows only ever grow.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+final class MessageStore {
+
+    /** Row kind of a telemetry message, the same as its type tag. */
+    private static final byte TELEMETRY = Message.TELEMETRY;
+
+    /** Row kind of a line crossing message, whose value is 1 when finished. */
+    private static final byte CROSSING = Message.CROSSING;
+
+    /** Row kind of a leaderboard message, whose value is its leaderboard number. */
+    private static final byte LEADERBOARD = Message.LEADERBOARD;
+
+    /** Row kind of a message kept as an object, whose value is the object's index. */
+    private static final byte OBJECT = 3;
+
+    /** Hundredths in one unit of distance. */
+    private static final double HUNDREDTHS = 100.0;
+
+    /** The racer index of each racer ID. */
+    private final RacerRegistry myRacers;
+
+    /** The racer ID of each racer index. */
+    private final int[] myRacerIDs;
+
+    /** The String form of each racer ID, by racer index. */
+    private final String[] myIDStrings;
+
+    /** The number of racers on every leaderboard. */
+    private final int myLeaderboardSize;
+
+    /** The stored messages. */
+    private volatile MessageRows myRows;
+
+    /** Messages kept as objects. */
+    private volatile Message[] myObjects;
+
+    /** The number of stored messages. */
+    private int mySize;
+
+    /** The number of messages kept as objects. */
+    private int myObjectCount;
+
+    /** The number of stored leaderboards. */
+    private int myLeaderboardCount;
+
+    /** The number of messages readers may see. */
+    private volatile int myPublished;
+
+    /** Holds whether the messages were appended in time order. */
+    private boolean mySorted;
+
+    /**
+     * Constructs an empty MessageStore for a race with no racers.
+     */
+    MessageStore() {
+        this(new HeapMessageRows(0, 0), new RacerRegistry(), 0);
+    }
+
+    /**
+     * Constructs an empty MessageStore.
+     *
+     * @param theRows the empty rows messages are kept in
+     * @param theRacers the racer indexes messages are stored with
+     * @param theLeaderboardSize the number of racers on every leaderboard
+     */
+    MessageStore(final MessageRows theRows, final RacerRegistry theRacers,
+                 final int theLeaderboardSize) {
+        myRacers = theRacers;
+        myRacerIDs = new int[theRacers.size()];
+        myIDStrings = new String[theRacers.size()];
+        for (int i = 0; i < myRacerIDs.length; i++) {
+            myRacerIDs[i] = theRacers.getID(i);
+            myIDStrings[i] = Integer.toString(myRacerIDs[i]);
+        }
+        myLeaderboardSize = theLeaderboardSize;
+        myRows = theRows;
+        myObjects = new Message[0];
+        mySorted = true;
+    }
+
+    /**
+     * Constructs an empty store for the same racers, kept in the same place.
+     *
+     * @param theOther the store to copy the racers of
+     * @param theCapacity a guess at the number of messages that will be stored
+     */
+    private MessageStore(final MessageStore theOther, final int theCapacity) {
+        myRacers = theOther.myRacers;
+        myRacerIDs = theOther.myRacerIDs;
+        myIDStrings = theOther.myIDStrings;
+        myLeaderboardSize = theOther.myLeaderboardSize;
+        myRows = theOther.myRows.empty(theCapacity, 0);
+        myObjects = new Message[0];
+        mySorted = true;
+    }
+
+    /**
+     * Returns an empty store for the same racers, kept in the same place.
+     *
+     * @param theCapacity a guess at the number of messages that will be stored
+     * @return an empty store
+     */
+    MessageStore emptyCopy(final int theCapacity) {
+        return new MessageStore(this, theCapacity);
+    }
+
+    /**
+     * Appends a telemetry message.
+     *
+     * @param theTime the time stamp of the message
+     * @param theRacer the index of the racer the message describes
+     * @param theHundredths the distance the racer has run this lap, in hundredths
+     * @param theLap the lap the racer is completing
+     */
+    void addTelemetry(final int theTime, final int theRacer, final int theHundredths,
+                      final int theLap) {
+        if (theLap > Short.MAX_VALUE) {
+            add(new TelemetryMessage(theTime, myRacerIDs[theRacer],
+                                     theHundredths / HUNDREDTHS, theLap));
+        } else {
+            append(theTime, TELEMETRY, theRacer, theHundredths, theLap);
+        }
+    }
+
+    /**
+     * Appends a line crossing message.
+     *
+     * @param theTime the time stamp of the message
+     * @param theRacer the index of the racer the message describes
+     * @param theLap the lap the racer is starting
+     * @param theFinished true if the racer has finished the race
+     */
+    void addCrossing(final int theTime, final int theRacer, final int theLap,
+                     final boolean theFinished) {
+        if (theLap > Short.MAX_VALUE) {
+            add(new CrossingMessage(theTime, myRacerIDs[theRacer], theLap, theFinished));
+        } else {
+            append(theTime, CROSSING, theRacer, theFinished ? 1 : 0, theLap);
+        }
+    }
+
+    /**
+     * Appends a leaderboard message.
+     *
+     * @param theTime the time stamp of the message
+     * @param theRacers the racer index in each position, as many as every leaderboard holds
+     */
+    void addLeaderboard(final int theTime, final int[] theRacers) {
+        final int start = myLeaderboardCount * myLeaderboardSize;
+        final MessageRows rows = room(mySize + 1, start + myLeaderboardSize);
+        for (int i = 0; i < myLeaderboardSize; i++) {
+            rows.setOrder(start + i, (short) theRacers[i]);
+        }
+        append(theTime, LEADERBOARD, 0, myLeaderboardCount, 0);
+        myLeaderboardCount++;
+    }
+
+    /**
+     * Appends a message, kept as it is.
+     *
+     * @param theMessage the message to be stored
+     */
+    void add(final Message theMessage) {
+        Message[] objects = myObjects;
+        if (myObjectCount == objects.length) {
+            objects = Arrays.copyOf(objects, grownCapacity(objects.length, myObjectCount + 1));
+            myObjects = objects;
+        }
+        objects[myObjectCount] = theMessage;
+        append(theMessage.getTime(), OBJECT, 0, myObjectCount, 0);
+        myObjectCount++;
+    }
+
+    /**
+     * Appends one row.
+     *
+     * @param theTime the time stamp of the message
+     * @param theKind the message kind
+     * @param theRacer the racer index
+     * @param theValue the kind specific value
+     * @param theLap the lap
+     */
+    private void append(final int theTime, final byte theKind, final int theRacer,
+                        final int theValue, final int theLap) {
+        final MessageRows rows = room(mySize + 1, 0);
+        if (mySize > 0 && theTime < rows.time(mySize - 1)) {
+            mySorted = false;
+        }
+        rows.set(mySize, theTime, theKind, (short) theRacer, theValue, (short) theLap);
+        mySize++;
+    }
+
+    /**
+     * Returns rows with room for the given number of rows and leaderboard racer indexes.
+     *
+     * @param theRows the rows that must fit
+     * @param theOrders the leaderboard racer indexes that must fit
+     * @return rows to write to
+     */
+    private MessageRows room(final int theRows, final int theOrders) {
+        MessageRows rows = myRows;
+        if (theRows > rows.capacity() || theOrders > rows.orderCapacity()) {
+            int capacity = rows.capacity();
+            if (theRows > capacity) {
+                capacity = grownCapacity(capacity, theRows);
+            }
+            int orderCapacity = rows.orderCapacity();
+            if (theOrders > orderCapacity) {
+                orderCapacity = grownCapacity(orderCapacity, theOrders);
+            }
+            rows = rows.grow(capacity, orderCapacity);
+            myRows = rows;
+        }
+        return rows;
+    }
+
+    /**
+     * Moves the last stored message back behind every message stamped at or before its
+     * time, shifting later stamped messages back by one. The messages before it must be
+     * in time order. Cheap when messages come close to time order, and readers may keep
+     * reading published messages stamped before the moved one's time.
+     */
+    void moveLastIntoOrder() {
+        final MessageRows rows = myRows;
+        int index = mySize - 1;
+        final int time = rows.time(index);
+        final byte kind = rows.kind(index);
+        final short racer = rows.racer(index);
+        final int value = rows.value(index);
+        final short lap = rows.lap(index);
+        while (index > 0 && rows.time(index - 1) > time) {
+            rows.copy(index - 1, rows, index);
+            index--;
+        }
+        rows.set(index, time, kind, racer, value, lap);
+        mySorted = true;
+    }
+
+    /**
+     * Appends every message of another store for the same racers, in its order.
+     *
+     * @param theOther the store to copy messages from
+     */
+    void addAll(final MessageStore theOther) {
+        if (theOther.mySize > 0) {
+            final MessageRows other = theOther.myRows;
+            final int orderStart = myLeaderboardCount * myLeaderboardSize;
+            final int orderCount = theOther.myLeaderboardCount * myLeaderboardSize;
+            final MessageRows rows = room(mySize + theOther.mySize, orderStart + orderCount);
+            if (mySize > 0 && other.time(0) < rows.time(mySize - 1) || !theOther.mySorted) {
+                mySorted = false;
+            }
+            for (int i = 0; i < theOther.mySize; i++) {
+                final byte kind = other.kind(i);
+                int value = other.value(i);
+                if (kind == LEADERBOARD) {
+                    value += myLeaderboardCount;
+                } else if (kind == OBJECT) {
+                    value += myObjectCount;
+                }
+                rows.set(mySize + i, other.time(i), kind, other.racer(i), value, other.lap(i));
+            }
+            for (int i = 0; i < orderCount; i++) {
+                rows.setOrder(orderStart + i, other.order(i));
+            }
+            Message[] objects = myObjects;
+            if (myObjectCount + theOther.myObjectCount > objects.length) {
+                objects = Arrays.copyOf(objects, grownCapacity(objects.length,
+                                        myObjectCount + theOther.myObjectCount));
+                myObjects = objects;
+            }
+            System.arraycopy(theOther.myObjects, 0, objects, myObjectCount,
+                             theOther.myObjectCount);
+            mySize += theOther.mySize;
+            myObjectCount += theOther.myObjectCount;
+            myLeaderboardCount += theOther.myLeaderboardCount;
+        }
+    }
+
+    /**
+     * Sorts the messages by time stamp, keeping messages with the same time
+     * stamp in the order they were appended, then publishes them.
+     */
+    void sortByTime() {
+        if (!mySorted) {
+            MessageRows rows = myRows;
+            MessageRows other = rows.withEmptyRows();
+            for (int width = 1; width < mySize; width *= 2) {
+                for (int start = 0; start < mySize; start += 2 * width) {
+                    final int middle = Math.min(start + width, mySize);
+                    final int end = Math.min(start + 2 * width, mySize);
+                    merge(rows, other, start, middle, end);
+                }
+                final MessageRows swap = rows;
+                rows = other;
+                other = swap;
+            }
+            myRows = rows;
+            mySorted = true;
+        }
+        publish();
+    }
+
+    /**
+     * Merges two neighboring sorted runs into the same place of other rows.
+     *
+     * @param theRows the rows holding the runs
+     * @param theOut where merged rows go
+     * @param theStart the first index of the first run
+     * @param theMiddle the first index of the second run
+     * @param theEnd one past the last index of the second run
+     */
+    private static void merge(final MessageRows theRows, final MessageRows theOut,
+                              final int theStart, final int theMiddle, final int theEnd) {
+        int left = theStart;
+        int right = theMiddle;
+        for (int out = theStart; out < theEnd; out++) {
+            if (right >= theEnd
+                || left < theMiddle && theRows.time(left) <= theRows.time(right)) {
+                theRows.copy(left, theOut, out);
+                left++;
+            } else {
+                theRows.copy(right, theOut, out);
+                right++;
+            }
+        }
+    }
+
+    /**
+     * Makes every message stored so far visible to readers.
+     */
+    void publish() {
+        myPublished = mySize;
+    }
+
+    /**
+     * Makes every stored message stamped before a race time visible to readers. The
+     * messages must be in time order, and no message stamped earlier may be stored later.
+     *
+     * @param theTime the race time before which every message is stored
+     */
+    void publishBefore(final int theTime) {
+        final MessageRows rows = myRows;
+        int low = myPublished;
+        int high = mySize;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (rows.time(middle) < theTime) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        myPublished = low;
+    }
+
+    /**
+     * Returns the index of the first message stamped at or after the given time,
+     * or size() if there is none. The published messages must be sorted.
+     *
+     * @param theTime the race time to search for
+     * @return the index of the first message at or after theTime
+     */
+    int firstIndexAt(final int theTime) {
+        int high = myPublished;
+        final MessageRows rows = myRows;
+        int low = 0;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (rows.time(middle) < theTime) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the number of published messages.
+     *
+     * @return the number of published messages
+     */
+    int size() {
+        return myPublished;
+    }
+
+    /**
+     * Returns the time stamp of the published message at an index.
+     *
+     * @param theIndex the index of the message
+     * @return the time stamp of the message
+     */
+    int getTime(final int theIndex) {
+        return myRows.time(theIndex);
+    }
+
+    /**
+     * Returns the type tag of the published message at an index, without building it.
+     *
+     * @param theIndex the index of the message
+     * @return the message type tag, one of the Message type tags
+     */
+    int getTag(final int theIndex) {
+        final MessageRows rows = myRows;
+        final byte kind = rows.kind(theIndex);
+        int tag = kind;
+        if (kind == OBJECT) {
+            tag = myObjects[rows.value(theIndex)].getTag();
+        }
+        return tag;
+    }
+
+    /**
+     * Returns whether the published message at an index is the line crossing of 
+     * a racer who has finished, without building it.
+     *
+     * @param theIndex the index of the message
+     * @return true if the message is a finishing line crossing, false otherwise
+     */
+    boolean isFinished(final int theIndex) {
+        final MessageRows rows = myRows;
+        final byte kind = rows.kind(theIndex);
+        boolean finished = kind == CROSSING && rows.value(theIndex) == 1;
+        if (kind == OBJECT && getTag(theIndex) == Message.CROSSING) {
+            finished = ((CrossingMessage) myObjects[rows.value(theIndex)]).isFinished();
+        }
+        return finished;
+    }
+
+    /**
+     * Finds the published messages in a range of indexes which a filter shows. Only
+     * each message's row is read; no message is built.
+     *
+     * @param theStart the index of the first message of the range
+     * @param theEnd the index after the last message of the range
+     * @param theFilter the filter
+     * @param theRows gets the indexes of the shown messages, in order, and must have
+     * room for the whole range
+     * @return the number of shown messages
+     */
+    int select(final int theStart, final int theEnd, final MessageFilter theFilter,
+               final int[] theRows) {
+        int count = 0;
+        for (int i = theStart; i < theEnd; i++) {
+            if (theFilter.accepts(this, i)) {
+                theRows[count] = i;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the racer index of the published telemetry or line crossing
+     * message at an index, without building it.
+     *
+     * @param theIndex the index of the message
+     * @return the racer index, or -1 if the message is about no racer
+     */
+    int getRacer(final int theIndex) {
+        final MessageRows rows = myRows;
+        final byte kind = rows.kind(theIndex);
+        int racer = -1;
+        if (kind == TELEMETRY || kind == CROSSING) {
+            racer = rows.racer(theIndex);
+        } else if (kind == OBJECT) {
+            final Message object = myObjects[rows.value(theIndex)];
+            final int tag = object.getTag();
+            if (tag == Message.TELEMETRY) {
+                racer = indexOfRacer(((TelemetryMessage) object).getID());
+            } else if (tag == Message.CROSSING) {
+                racer = indexOfRacer(((CrossingMessage) object).getID());
+            }
+        }
+        return racer;
+    }
+
+    /**
+     * Returns the racer index messages about a racer are stored with.
+     *
+     * @param theID the racer ID
+     * @return the racer index, or -1 if the racer is not in this race
+     */
+    int indexOfRacer(final int theID) {
+        return myRacers.indexOf(theID);
+    }
+
+    /**
+     * Returns the number of racers messages are stored for.
+     *
+     * @return the number of racer indexes
+     */
+    int getRacerCount() {
+        return myRacerIDs.length;
+    }
+
+    /**
+     * Returns the published message at an index, built on every call
+     * unless it is kept as an object.
+     *
+     * @param theIndex the index of the message
+     * @return the message
+     */
+    Message get(final int theIndex) {
+        final MessageRows rows = myRows;
+        final byte kind = rows.kind(theIndex);
+        final int time = rows.time(theIndex);
+        final Message message;
+        if (kind == TELEMETRY) {
+            message = new TelemetryMessage(time, myRacerIDs[rows.racer(theIndex)],
+                                           rows.value(theIndex) / HUNDREDTHS,
+                                           rows.lap(theIndex));
+        } else if (kind == CROSSING) {
+            message = new CrossingMessage(time, myRacerIDs[rows.racer(theIndex)],
+                                          rows.lap(theIndex), rows.value(theIndex) == 1);
+        } else if (kind == LEADERBOARD) {
+            final int[] ids = new int[myLeaderboardSize];
+            final String[] order = new String[myLeaderboardSize];
+            final int start = rows.value(theIndex) * myLeaderboardSize;
+            for (int i = 0; i < order.length; i++) {
+                final int racer = rows.order(start + i);
+                ids[i] = myRacerIDs[racer];
+                order[i] = myIDStrings[racer];
+            }
+            message = new LeaderboardMessage(time, ids, order);
+        } else {
+            message = myObjects[rows.value(theIndex)];
+        }
+        return message;
+    }
+
+    /**
+     * Returns a capacity half again as large as the current one, or the needed one.
+     *
+     * @param theCurrent the current capacity
+     * @param theNeeded the capacity that must fit
+     * @return the new capacity
+     */
+    private static int grownCapacity(final int theCurrent, final int theNeeded) {
+        return (int) Math.min(Integer.MAX_VALUE,
+                              Math.max(theNeeded, theCurrent + (long) (theCurrent >> 1)));
+    }
+}
@@ -0,0 +1,34 @@
+package model;
+
+/**
+ * Defines the behaviors of an object which handles each type of Message in its own way.
+ * A message passed to accept calls back the method for its own type, so handling a
+ * message needs neither its type string nor a cast. A new message type adds a method
+ * here, so every visitor must handle it before the program compiles again.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public interface MessageVisitor {
+
+    /**
+     * Handles a telemetry message.
+     *
+     * @param theMessage the telemetry message
+     */
+    void visitTelemetry(TelemetryMessage theMessage);
+
+    /**
+     * Handles a line crossing message.
+     *
+     * @param theMessage the line crossing message
+     */
+    void visitCrossing(CrossingMessage theMessage);
+
+    /**
+     * Handles a leaderboard message.
+     *
+     * @param theMessage the leaderboard message
+     */
+    void visitLeaderboard(LeaderboardMessage theMessage);
+}
@@ -0,0 +1,140 @@
+package model;
+
+import java.util.function.LongSupplier;
+
+/**
+ * This program measures how much race time playback owes, from the system's nanosecond
+ * clock. Race time is owed for the real time that actually passed since it was last
+ * played, times the speed, so late or early ticks never make race time drift from real
+ * time. Fractions of a race millisecond are carried over to the next tick rather than
+ * dropped, so played race time stays within a millisecond of real time times the speed
+ * however long playback runs.
+ *
+ * A clock is used by one thread only.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+final class PlaybackClock {
+
+    /** The slowest playback speed. */
+    static final double MIN_SPEED = 0.1;
+
+    /** The fastest playback speed. */
+    static final double MAX_SPEED = 100.0;
+
+    /** Nanoseconds in one millisecond. */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /** The nanosecond clock real time is read from. */
+    private final LongSupplier myNanoTime;
+
+    /** Race milliseconds per real millisecond. */
+    private double mySpeed;
+
+    /** Holds whether real time is turning into race time. */
+    private boolean myRunning;
+
+    /** The real nanosecond time race time was last owed up to. */
+    private long myLast;
+
+    /** Race milliseconds owed and not yet played. */
+    private double myOwed;
+
+    /**
+     * Constructs a stopped clock at normal speed.
+     *
+     * @param theNanoTime the nanosecond clock real time is read from
+     */
+    PlaybackClock(final LongSupplier theNanoTime) {
+        myNanoTime = theNanoTime;
+        mySpeed = 1.0;
+    }
+
+    /**
+     * Starts turning real time into race time, from now.
+     */
+    void start() {
+        if (!myRunning) {
+            myLast = myNanoTime.getAsLong();
+            myRunning = true;
+        }
+    }
+
+    /**
+     * Stops turning real time into race time. Race time owed up to now is kept.
+     */
+    void stop() {
+        accrue();
+        myRunning = false;
+    }
+
+    /**
+     * Sets the playback speed, from now on.
+     *
+     * @param theSpeed race milliseconds per real millisecond
+     * @throws IllegalArgumentException if theSpeed is not from MIN_SPEED to MAX_SPEED
+     */
+    void setSpeed(final double theSpeed) {
+        checkSpeed(theSpeed);
+        accrue();
+        mySpeed = theSpeed;
+    }
+
+    /**
+     * Returns the playback speed.
+     *
+     * @return race milliseconds per real millisecond
+     */
+    double getSpeed() {
+        return mySpeed;
+    }
+
+    /**
+     * Returns the whole race milliseconds owed up to now, which are then played.
+     * The fraction of a millisecond left is owed to the next call.
+     *
+     * @return race milliseconds to play
+     */
+    int elapsed() {
+        accrue();
+        final int whole = (int) Math.min(Integer.MAX_VALUE, Math.floor(myOwed));
+        myOwed -= whole;
+        return whole;
+    }
+
+    /**
+     * Returns the race milliseconds of one real frame at the current speed,
+     * at least one.
+     *
+     * @param theFrameMillis the real milliseconds of a frame
+     * @return race milliseconds of one frame
+     */
+    int frame(final int theFrameMillis) {
+        return Math.max(1, (int) Math.round(theFrameMillis * mySpeed));
+    }
+
+    /**
+     * Checks that a playback speed is allowed.
+     *
+     * @param theSpeed race milliseconds per real millisecond
+     * @throws IllegalArgumentException if theSpeed is not from MIN_SPEED to MAX_SPEED
+     */
+    static void checkSpeed(final double theSpeed) {
+        if (!(theSpeed >= MIN_SPEED && theSpeed <= MAX_SPEED)) {
+            throw new IllegalArgumentException("Speed must be from " + MIN_SPEED
+                                               + " to " + MAX_SPEED + ": " + theSpeed);
+        }
+    }
+
+    /**
+     * Owes race time for the real time since it was last owed, if running.
+     */
+    private void accrue() {
+        if (myRunning) {
+            final long now = myNanoTime.getAsLong();
+            myOwed += (now - myLast) / NANOS_PER_MILLI * mySpeed;
+            myLast = now;
+        }
+    }
+}
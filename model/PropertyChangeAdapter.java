@@ -0,0 +1,162 @@
+package model;
+
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_CONFLATED_MESSAGES;
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_HEADER_INFO;
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_MESSAGE_BATCH;
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_NEW_MESSAGES;
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_RACER_INFO;
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_RACE_COMPLETE;
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_SEEK;
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_TIME;
+
+import java.beans.PropertyChangeSupport;
+
+/**
+ * This program passes RaceEventBus events on to PropertyChangeListeners, as the events
+ * of PropertyChangeEnabledRaceControls. It only subscribes to the bus for an event once
+ * a PropertyChangeListener could want it, so races without such listeners do not pay
+ * for building PropertyChangeEvents.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+final class PropertyChangeAdapter implements RaceEventBus.TimeListener,
+                RaceEventBus.SeekListener, RaceEventBus.HeaderListener, RaceEventBus.RacersListener,
+                RaceEventBus.MessageListener, RaceEventBus.CompleteListener {
+
+    /** The bus events come from. */
+    private final RaceEventBus myBus;
+
+    /** The listeners events go to. */
+    private final PropertyChangeSupport myPcs;
+
+    /** Holds whether new messages are sent as one batch per time change. */
+    private boolean myBatchedDelivery;
+
+    /** Holds whether time events are subscribed to. */
+    private boolean myTime;
+
+    /** Holds whether seek events are subscribed to. */
+    private boolean mySeek;
+
+    /** Holds whether header events are subscribed to. */
+    private boolean myHeader;
+
+    /** Holds whether racer events are subscribed to. */
+    private boolean myRacers;
+
+    /** Holds whether new messages are subscribed to. */
+    private boolean myMessages;
+
+    /** Holds whether conflated messages are subscribed to. */
+    private boolean myConflated;
+
+    /** Holds whether race complete events are subscribed to. */
+    private boolean myComplete;
+
+    /**
+     * Constructs an adapter which is not yet subscribed to anything.
+     *
+     * @param theBus the bus events come from
+     * @param thePcs the listeners events go to
+     */
+    PropertyChangeAdapter(final RaceEventBus theBus, final PropertyChangeSupport thePcs) {
+        myBus = theBus;
+        myPcs = thePcs;
+    }
+
+    /**
+     * Sets whether new messages are sent one PROPERTY_NEW_MESSAGES event at a time,
+     * or as a single PROPERTY_MESSAGE_BATCH event per time change.
+     *
+     * @param theBatched true to send messages in batches, false to send them one by one
+     */
+    void setBatchedDelivery(final boolean theBatched) {
+        myBatchedDelivery = theBatched;
+    }
+
+    /**
+     * Subscribes to the bus events behind a property, once a listener has been added
+     * for it. A listener to every property is passed null. Conflated messages are only
+     * subscribed to for listeners which name that property.
+     *
+     * @param thePropertyName the property listened to, or null for all of them
+     */
+    void listenFor(final String thePropertyName) {
+        final boolean all = thePropertyName == null;
+        if (!myTime && (all || PROPERTY_TIME.equals(thePropertyName))) {
+            myTime = true;
+            myBus.addTimeListener(this);
+        }
+        if (!mySeek && (all || PROPERTY_SEEK.equals(thePropertyName))) {
+            mySeek = true;
+            myBus.addSeekListener(this);
+        }
+        if (!myHeader && (all || PROPERTY_HEADER_INFO.equals(thePropertyName))) {
+            myHeader = true;
+            myBus.addHeaderListener(this);
+        }
+        if (!myRacers && (all || PROPERTY_RACER_INFO.equals(thePropertyName))) {
+            myRacers = true;
+            myBus.addRacersListener(this);
+        }
+        if (!myMessages && (all || PROPERTY_NEW_MESSAGES.equals(thePropertyName)
+                        || PROPERTY_MESSAGE_BATCH.equals(thePropertyName))) {
+            myMessages = true;
+            myBus.addMessageListener(this);
+        }
+        if (!myConflated && PROPERTY_CONFLATED_MESSAGES.equals(thePropertyName)) {
+            myConflated = true;
+            myBus.addConflatedListener(this::conflatedSent);
+        }
+        if (!myComplete && (all || PROPERTY_RACE_COMPLETE.equals(thePropertyName))) {
+            myComplete = true;
+            myBus.addCompleteListener(this);
+        }
+    }
+
+    @Override
+    public void timeChanged(final int theTime) {
+        myPcs.firePropertyChange(PROPERTY_TIME, null, theTime);
+    }
+
+    @Override
+    public void timeSought(final int theTime) {
+        myPcs.firePropertyChange(PROPERTY_SEEK, null, theTime);
+    }
+
+    @Override
+    public void headerLoaded(final RaceHeader theHeader) {
+        myPcs.firePropertyChange(PROPERTY_HEADER_INFO, null, theHeader);
+    }
+
+    @Override
+    public void racersLoaded(final RacerRegistry theRacers) {
+        myPcs.firePropertyChange(PROPERTY_RACER_INFO, null, theRacers);
+    }
+
+    @Override
+    public void messagesSent(final MessageBatch theMessages) {
+        if (myBatchedDelivery) {
+            myPcs.firePropertyChange(PROPERTY_MESSAGE_BATCH, null, theMessages);
+        } else {
+            for (final Message m : theMessages) {
+                myPcs.firePropertyChange(PROPERTY_NEW_MESSAGES, null, m);
+            }
+        }
+    }
+
+    /**
+     * Sends conflated messages to listeners as one PROPERTY_CONFLATED_MESSAGES event.
+     *
+     * @param theMessages the conflated messages
+     */
+    private void conflatedSent(final MessageBatch theMessages) {
+        myPcs.firePropertyChange(PROPERTY_CONFLATED_MESSAGES, null, theMessages);
+    }
+
+    @Override
+    public void raceCompleted() {
+        myPcs.firePropertyChange(PROPERTY_RACE_COMPLETE, false, true);
+    }
+}
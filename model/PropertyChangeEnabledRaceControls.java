@@ -27,10 +27,30 @@ public interface PropertyChangeEnabledRaceControls extends RaceControls {
      */
     String PROPERTY_TIME = "The time has changed.";
 
+    /**
+     * A property name for when model time jumps, forwards or backwards, sent before
+     * the PROPERTY_TIME of the jump. The new value is the race time jumped to.
+     */
+    String PROPERTY_SEEK = "The time has jumped.";
+
     /**
      * A property name for when model sends new messages.
      */
     String PROPERTY_NEW_MESSAGES = "There is a new message.";
+    
+    /**
+     * A property name for when the model sends every new message of one time change 
+     * at once, as a MessageBatch, in place of one PROPERTY_NEW_MESSAGES per message.
+     */
+    String PROPERTY_MESSAGE_BATCH = "There is a batch of new messages.";
+    
+    /**
+     * A property name for when the model sends, as a MessageBatch, only the messages of 
+     * one time change that show where the race stands: each racer's latest telemetry, 
+     * every line crossing and the latest leaderboard. It is only sent while a listener 
+     * is subscribed to it by name.
+     */
+    String PROPERTY_CONFLATED_MESSAGES = "There are conflated new messages.";
        
     /**
      * A property name for when the race is complete.
@@ -38,15 +58,34 @@ public interface PropertyChangeEnabledRaceControls extends RaceControls {
     String PROPERTY_RACE_COMPLETE = "The race is complete";
     
     /**
-     * A property name announcing that race information is available.
+     * A property name announcing that race information is available. The new value is
+     * the RaceHeader of the loaded race, or null once no race is held.
      */
     String PROPERTY_HEADER_INFO = "This is a Header object.";
     
     /**
      * a property name announcing that racer information is available.
+     * The new value is the RacerRegistry of the loaded race.
      */
     String PROPERTY_RACER_INFO = "This a racer info object.";
     
+    /**
+     * A property name for progress of a background race load, as a percentage. A load
+     * that succeeds ends with 100 sent once its Future is done, even while streaming.
+     */
+    String PROPERTY_LOAD_PROGRESS = "The race file is this far along.";
+    
+    /**
+     * A property name announcing that a background race load failed, with its exception.
+     * A cancelled load fails with an InterruptedIOException.
+     */
+    String PROPERTY_LOAD_FAILED = "The race file could not be loaded.";
+    
+    /**
+     * A property name for the race time up to which a streaming race is loaded.
+     */
+    String PROPERTY_LOADED_TO = "The race is loaded up to this time.";
+    
     /**
      * Add a PropertyChangeListener to the listener list. The listener is registered for 
      * all properties. The same listener object may be added more than once, and will be 
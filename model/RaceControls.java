@@ -2,6 +2,7 @@ package model;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.Future;
 
 /**
  * Define the actions that may be performed on a Race object. 
@@ -53,6 +54,16 @@ public interface RaceControls {
      * @param theToggle toggle a participant on (true) or off (false)
      */
     void toggleParticipant(int theParticpantID, boolean theToggle);
+    
+    /**
+     * Toggles a message type ON/OFF. When off, messages of that type will NOT be 
+     * included in the notification(s), for any participant. Every type starts on.
+     * 
+     * @param theTag the message type tag, one of the Message type tags
+     * @param theToggle toggle the message type on (true) or off (false)
+     * @throws IllegalArgumentException when theTag is not a message type tag
+     */
+    void toggleMessageType(int theTag, boolean theToggle);
         
     /**
      * Load a file containing race information. All registered listeners will be notified of 
@@ -64,4 +75,17 @@ public interface RaceControls {
      */
     void loadRace(File theRaceFile) throws IOException;
     
+    /**
+     * Load a file containing race information on a background thread. The current race stays
+     * in place until the new file has been completely read and checked, then is replaced all 
+     * at once. Registered listeners will be notified of progress updates during the load, and 
+     * of information in the header message when the new race is in place. Cancelling the 
+     * returned Future stops the load and leaves the current race in place.
+     * 
+     * @param theRaceFile the file to load.
+     * @return a Future holding the loaded race header, or the IOException thrown when the 
+     * file is not in the appropriate format
+     */
+    Future<RaceHeader> loadRaceAsync(File theRaceFile);
+    
 }
@@ -0,0 +1,396 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * This program delivers race events from a RaceModel to typed listeners. There is one
+ * listener interface for each kind of event, so listeners are called with the event's
+ * value itself rather than a PropertyChangeEvent to check the name of and cast.
+ *
+ * Listeners are held in copy on write arrays. Adding or removing a listener copies its
+ * array, while sending an event only reads the array, without locking or allocating.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public final class RaceEventBus {
+
+    /** The empty time listener array. */
+    private static final TimeListener[] NO_TIME = {};
+
+    /** The empty seek listener array. */
+    private static final SeekListener[] NO_SEEK = {};
+
+    /** The empty header listener array. */
+    private static final HeaderListener[] NO_HEADER = {};
+
+    /** The empty racers listener array. */
+    private static final RacersListener[] NO_RACERS = {};
+
+    /** The empty message listener array. */
+    private static final MessageListener[] NO_MESSAGES = {};
+
+    /** The empty complete listener array. */
+    private static final CompleteListener[] NO_COMPLETE = {};
+
+    /** Listeners to race time changes. */
+    private volatile TimeListener[] myTimeListeners = NO_TIME;
+
+    /** Listeners to race time jumps. */
+    private volatile SeekListener[] mySeekListeners = NO_SEEK;
+
+    /** Listeners to loaded race headers. */
+    private volatile HeaderListener[] myHeaderListeners = NO_HEADER;
+
+    /** Listeners to loaded racers. */
+    private volatile RacersListener[] myRacersListeners = NO_RACERS;
+
+    /** Listeners to every new message. */
+    private volatile MessageListener[] myMessageListeners = NO_MESSAGES;
+
+    /** Listeners to conflated new messages. */
+    private volatile MessageListener[] myConflatedListeners = NO_MESSAGES;
+
+    /** Listeners to the race being completed. */
+    private volatile CompleteListener[] myCompleteListeners = NO_COMPLETE;
+
+    /**
+     * Adds a listener to race time changes.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void addTimeListener(final TimeListener theListener) {
+        myTimeListeners = added(myTimeListeners, theListener);
+    }
+
+    /**
+     * Removes a listener to race time changes.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void removeTimeListener(final TimeListener theListener) {
+        myTimeListeners = removed(myTimeListeners, theListener);
+    }
+
+    /**
+     * Adds a listener to race time jumps.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void addSeekListener(final SeekListener theListener) {
+        mySeekListeners = added(mySeekListeners, theListener);
+    }
+
+    /**
+     * Removes a listener to race time jumps.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void removeSeekListener(final SeekListener theListener) {
+        mySeekListeners = removed(mySeekListeners, theListener);
+    }
+
+    /**
+     * Adds a listener to loaded race headers.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void addHeaderListener(final HeaderListener theListener) {
+        myHeaderListeners = added(myHeaderListeners, theListener);
+    }
+
+    /**
+     * Removes a listener to loaded race headers.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void removeHeaderListener(final HeaderListener theListener) {
+        myHeaderListeners = removed(myHeaderListeners, theListener);
+    }
+
+    /**
+     * Adds a listener to loaded racers.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void addRacersListener(final RacersListener theListener) {
+        myRacersListeners = added(myRacersListeners, theListener);
+    }
+
+    /**
+     * Removes a listener to loaded racers.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void removeRacersListener(final RacersListener theListener) {
+        myRacersListeners = removed(myRacersListeners, theListener);
+    }
+
+    /**
+     * Adds a listener to every new message of each time change.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void addMessageListener(final MessageListener theListener) {
+        myMessageListeners = added(myMessageListeners, theListener);
+    }
+
+    /**
+     * Removes a listener to every new message.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void removeMessageListener(final MessageListener theListener) {
+        myMessageListeners = removed(myMessageListeners, theListener);
+    }
+
+    /**
+     * Adds a listener to the conflated messages of each time change: each racer's
+     * latest telemetry, every line crossing and the latest leaderboard.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void addConflatedListener(final MessageListener theListener) {
+        myConflatedListeners = added(myConflatedListeners, theListener);
+    }
+
+    /**
+     * Removes a listener to conflated messages.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void removeConflatedListener(final MessageListener theListener) {
+        myConflatedListeners = removed(myConflatedListeners, theListener);
+    }
+
+    /**
+     * Adds a listener to the race being completed.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void addCompleteListener(final CompleteListener theListener) {
+        myCompleteListeners = added(myCompleteListeners, theListener);
+    }
+
+    /**
+     * Removes a listener to the race being completed.
+     *
+     * @param theListener the listener
+     */
+    public synchronized void removeCompleteListener(final CompleteListener theListener) {
+        myCompleteListeners = removed(myCompleteListeners, theListener);
+    }
+
+    /**
+     * Sends a race time to every time listener.
+     *
+     * @param theTime the race time
+     */
+    void fireTime(final int theTime) {
+        for (final TimeListener listener : myTimeListeners) {
+            listener.timeChanged(theTime);
+        }
+    }
+
+    /**
+     * Sends a race time jumped to to every seek listener.
+     *
+     * @param theTime the race time jumped to
+     */
+    void fireSeek(final int theTime) {
+        for (final SeekListener listener : mySeekListeners) {
+            listener.timeSought(theTime);
+        }
+    }
+
+    /**
+     * Sends a race header to every header listener.
+     *
+     * @param theHeader the race header
+     */
+    void fireHeader(final RaceHeader theHeader) {
+        for (final HeaderListener listener : myHeaderListeners) {
+            listener.headerLoaded(theHeader);
+        }
+    }
+
+    /**
+     * Sends the racers to every racers listener.
+     *
+     * @param theRacers the racers, by racer index
+     */
+    void fireRacers(final RacerRegistry theRacers) {
+        for (final RacersListener listener : myRacersListeners) {
+            listener.racersLoaded(theRacers);
+        }
+    }
+
+    /**
+     * Sends new messages to every message listener.
+     *
+     * @param theMessages the new messages
+     */
+    void fireMessages(final MessageBatch theMessages) {
+        for (final MessageListener listener : myMessageListeners) {
+            listener.messagesSent(theMessages);
+        }
+    }
+
+    /**
+     * Sends conflated new messages to every conflated listener.
+     *
+     * @param theMessages the conflated new messages
+     */
+    void fireConflated(final MessageBatch theMessages) {
+        for (final MessageListener listener : myConflatedListeners) {
+            listener.messagesSent(theMessages);
+        }
+    }
+
+    /**
+     * Tells every complete listener the race is complete.
+     */
+    void fireComplete() {
+        for (final CompleteListener listener : myCompleteListeners) {
+            listener.raceCompleted();
+        }
+    }
+
+    /**
+     * Returns whether any listener wants every new message.
+     *
+     * @return true if there are message listeners, false otherwise
+     */
+    boolean hasMessageListeners() {
+        return myMessageListeners.length > 0;
+    }
+
+    /**
+     * Returns whether any listener wants conflated new messages.
+     *
+     * @return true if there are conflated listeners, false otherwise
+     */
+    boolean hasConflatedListeners() {
+        return myConflatedListeners.length > 0;
+    }
+
+    /**
+     * Returns a copy of a listener array with a listener added at the end.
+     *
+     * @param <T> the listener type
+     * @param theListeners the listeners
+     * @param theListener the listener to add
+     * @return the new listener array
+     */
+    private static <T> T[] added(final T[] theListeners, final T theListener) {
+        final T[] listeners = Arrays.copyOf(theListeners, theListeners.length + 1);
+        listeners[theListeners.length] = theListener;
+        return listeners;
+    }
+
+    /**
+     * Returns a copy of a listener array without the first occurrence of a listener,
+     * or the array itself if the listener is not in it.
+     *
+     * @param <T> the listener type
+     * @param theListeners the listeners
+     * @param theListener the listener to remove
+     * @return the new listener array
+     */
+    private static <T> T[] removed(final T[] theListeners, final T theListener) {
+        final int index = Arrays.asList(theListeners).indexOf(theListener);
+        T[] listeners = theListeners;
+        if (index >= 0) {
+            listeners = Arrays.copyOf(theListeners, theListeners.length - 1);
+            System.arraycopy(theListeners, index + 1, listeners, index,
+                             theListeners.length - index - 1);
+        }
+        return listeners;
+    }
+
+    /**
+     * A listener to race time changes.
+     */
+    @FunctionalInterface
+    public interface TimeListener {
+
+        /**
+         * Called when the race time changes.
+         *
+         * @param theTime the new race time
+         */
+        void timeChanged(int theTime);
+    }
+
+    /**
+     * A listener to race time jumps, which send the race state at the new time in
+     * place of every message in between.
+     */
+    @FunctionalInterface
+    public interface SeekListener {
+
+        /**
+         * Called when the race time jumps, forwards or backwards, before the time
+         * change and the race state at the new time are sent.
+         *
+         * @param theTime the race time jumped to
+         */
+        void timeSought(int theTime);
+    }
+
+    /**
+     * A listener to loaded race headers.
+     */
+    @FunctionalInterface
+    public interface HeaderListener {
+
+        /**
+         * Called when a race is loaded, or with null when a streamed race was taken
+         * back and no race is held.
+         *
+         * @param theHeader the header of the loaded race, or null if there is none
+         */
+        void headerLoaded(RaceHeader theHeader);
+    }
+
+    /**
+     * A listener to loaded racers.
+     */
+    @FunctionalInterface
+    public interface RacersListener {
+
+        /**
+         * Called when a race is loaded.
+         *
+         * @param theRacers the racers of the loaded race, by racer index, which
+         * must not be changed
+         */
+        void racersLoaded(RacerRegistry theRacers);
+    }
+
+    /**
+     * A listener to new messages.
+     */
+    @FunctionalInterface
+    public interface MessageListener {
+
+        /**
+         * Called with the new messages of a time change.
+         *
+         * @param theMessages the new messages, in the order they were stored
+         */
+        void messagesSent(MessageBatch theMessages);
+    }
+
+    /**
+     * A listener to the race being completed.
+     */
+    @FunctionalInterface
+    public interface CompleteListener {
+
+        /**
+         * Called when the race time reaches the end of the race.
+         */
+        void raceCompleted();
+    }
+}
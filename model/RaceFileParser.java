@@ -0,0 +1,834 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * This program reads a race file out of memory mapped buffers. The file is mapped in
+ * segments of at most a gigabyte, so files larger than 2 GB may be read.
+ * The mapped bytes are copied in bulk into a reused window of bytes on the heap,
+ * always holding whole lines, and lines are scanned from the window, so reading a
+ * byte is a plain array access rather than a bounds checked buffer call.
+ * Header and participant lines are handed out as Strings since there are only a
+ * handful of them, while the $T, $L and $C message lines are tokenized directly
+ * from the bytes so that no Strings are created while parsing numbers.
+ * The message section may also be split into newline aligned chunks which are
+ * parsed at the same time on the fork/join common pool, or streamed in file order
+ * while a watermark tells readers which race times are completely parsed.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+final class RaceFileParser {
+
+    /** The byte which separates message values. */
+    private static final byte SEPARATOR = ':';
+
+    /** The byte which ends a line. */
+    private static final byte NEW_LINE = '\n';
+
+    /** The byte which may come before a new line on some files. */
+    private static final byte RETURN = '\r';
+
+    /** The byte which starts every message type. */
+    private static final byte MESSAGE_START = '$';
+
+    /** The number of decimal places a telemetry distance must have. */
+    private static final int DISTANCE_DECIMALS = 2;
+
+    /** Radix used when parsing numbers. */
+    private static final int RADIX = 10;
+
+    /** Bytes of the word true. */
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+
+    /** Bytes of the word false. */
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    /** Smallest message section, in bytes, worth splitting into chunks. */
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    /** Number of chunks handed to each core, so a slow chunk does not stall the rest. */
+    private static final int CHUNKS_PER_CORE = 4;
+
+    /** Educated guess at the number of bytes in one message line. */
+    private static final int BYTES_PER_MESSAGE = 20;
+
+    /** Number of bytes parsed between progress updates and cancellation checks. */
+    private static final int CHECKPOINT_BYTES = 1 << 18;
+
+    /**
+     * Race milliseconds a streamed message may be stamped earlier than the latest one
+     * before it, so a file only roughly in time order still streams.
+     */
+    private static final int REORDER_MILLIS = 1000;
+
+    /** Log base 2 of the bytes in one mapped segment of the file. */
+    private static final int SEGMENT_SHIFT = 30;
+
+    /** The bytes in one mapped segment of the file. */
+    private static final long SEGMENT_BYTES = 1L << SEGMENT_SHIFT;
+
+    /** Largest chunk handed to one fork/join task, whose store must fit its rows. */
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    /** Percentage of a completely parsed file. */
+    private static final int ALL_DONE = 100;
+
+    /** Starting size of the window of bytes, which grows to fit the longest line. */
+    private static final int WINDOW_SIZE = 1 << 16;
+
+    /** The memory mapped race file, in segments of SEGMENT_BYTES. */
+    private final MappedByteBuffer[] mySegments;
+
+    /** The size of the race file, in bytes. */
+    private final long myFileSize;
+
+    /** File position one past the last byte this parser may read. */
+    private final long myLimit;
+
+    /** Bytes of the file copied out of the mapped buffer, holding whole lines. */
+    private byte[] myWindow;
+
+    /** The file position of the first byte of the window. */
+    private long myWindowStart;
+
+    /** The number of bytes of the file held in the window. */
+    private int myWindowEnd;
+
+    /** The participants, which give each racer ID its position in the participant list. */
+    private final RacerRegistry myRacers;
+
+    /** Stamps which racer indexes were already seen on the current leaderboard line. */
+    private int[] mySeenStamp;
+
+    /** Set by any chunk that finds a bad line, so the other chunks stop early. */
+    private final AtomicBoolean myFailed;
+
+    /** Bytes of the file parsed so far, by every chunk together. */
+    private final AtomicLong myBytesDone;
+
+    /** The last percentage handed to the progress listener. */
+    private final AtomicInteger myPercent;
+
+    /** The thread loading this file, whose interruption cancels the parse. */
+    private final Thread myOwner;
+
+    /** Told the percentage of the file parsed so far, may be null. */
+    private IntConsumer myProgress;
+
+    /** Told the race time before which every message has been parsed, may be null. */
+    private IntConsumer myLoadedTo;
+
+    /** The race time before which every message has been parsed, as last published. */
+    private int myPublished;
+
+    /** The latest time stamp of any message parsed so far. */
+    private int myLatestTime;
+
+    /** Set when a streamed message is stamped before the race time already published. */
+    private boolean myOutOfOrder;
+
+    /** The store parsed messages go to, or, for a chunk, its messages in file order. */
+    private MessageStore myStore;
+
+    /** Number of milliseconds that messages may be stamped with. */
+    private int myRaceLength;
+
+    /** The racer index in each position of the current leaderboard line. */
+    private int[] myOrder;
+
+    /** The current leaderboard line stamp. */
+    private int myStamp;
+
+    /** Window position of the next unread byte. */
+    private int myPos;
+
+    /** Window position one past the last byte of the current line, new line excluded. */
+    private int myLineEnd;
+
+    /** Window position of the start of the next line. */
+    private int myNextLine;
+
+    /** Start of the current field. */
+    private int myFieldStart;
+
+    /** End of the current field, exclusive. */
+    private int myFieldEnd;
+
+    /**
+     * Memory maps a race file so it can be parsed.
+     *
+     * @param theRaceFile the race file to be parsed
+     * @throws IOException if the file can not be mapped
+     */
+    RaceFileParser(final File theRaceFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(theRaceFile.toPath(),
+                                                    StandardOpenOption.READ)) {
+            myFileSize = channel.size();
+            mySegments = new MappedByteBuffer[
+                            (int) ((myFileSize + SEGMENT_BYTES - 1) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < mySegments.length; i++) {
+                final long start = (long) i << SEGMENT_SHIFT;
+                mySegments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                                            Math.min(SEGMENT_BYTES, myFileSize - start));
+            }
+        }
+        myLimit = myFileSize;
+        myWindow = new byte[WINDOW_SIZE];
+        myRacers = new RacerRegistry();
+        myFailed = new AtomicBoolean();
+        myBytesDone = new AtomicLong();
+        myPercent = new AtomicInteger();
+        myOwner = Thread.currentThread();
+    }
+
+    /**
+     * Builds a parser for one chunk of the message section of theParent's file.
+     * The chunk shares the parent's mapped file and participant tables.
+     *
+     * @param theParent the parser which already read the header and participants
+     * @param theStart the first byte of the chunk, at the start of a line
+     * @param theEnd one past the last byte of the chunk, at the start of a line
+     */
+    private RaceFileParser(final RaceFileParser theParent, final long theStart,
+                           final long theEnd) {
+        mySegments = theParent.mySegments;
+        myFileSize = theParent.myFileSize;
+        myLimit = theEnd;
+        myWindow = new byte[WINDOW_SIZE];
+        myWindowStart = theStart;
+        myRacers = theParent.myRacers;
+        myFailed = theParent.myFailed;
+        myBytesDone = theParent.myBytesDone;
+        myPercent = theParent.myPercent;
+        myOwner = theParent.myOwner;
+        myProgress = theParent.myProgress;
+        myRaceLength = theParent.myRaceLength;
+        myStore = theParent.myStore.emptyCopy((int) ((theEnd - theStart) / BYTES_PER_MESSAGE));
+    }
+
+    /**
+     * Returns true if there is another line left in the file.
+     *
+     * @return true if there is another line, false otherwise
+     */
+    boolean hasNextLine() {
+        return myWindowStart + myPos < myLimit;
+    }
+
+    /**
+     * Returns the next line of the file as a String, new line excluded.
+     * Only meant for the few header and participant lines.
+     *
+     * @return the next line of the file
+     * @throws NoSuchElementException if there are no lines left
+     */
+    String nextLine() {
+        if (!hasNextLine()) {
+            throw new NoSuchElementException("No line found");
+        }
+        findLineEnd();
+        final String line = new String(myWindow, myPos, myLineEnd - myPos,
+                                       StandardCharsets.UTF_8);
+        skipLine();
+        return line;
+    }
+
+    /**
+     * Builds an empty store for the messages left in the file, sized from the file
+     * and holding messages by the index of each registered participant.
+     *
+     * @param theParticipants the number of participants every leaderboard must hold
+     * @param theOffHeap true to keep the messages in mapped scratch files, off the heap
+     * @return an empty store for the messages of this file
+     * @throws IOException if a scratch file can not be mapped
+     */
+    MessageStore createStore(final int theParticipants, final boolean theOffHeap)
+                    throws IOException {
+        final int capacity = (int) Math.min(Integer.MAX_VALUE,
+                        (myLimit - myWindowStart - myPos) / BYTES_PER_MESSAGE);
+        final MessageRows rows;
+        if (theOffHeap) {
+            rows = new MappedMessageRows(capacity, 0);
+        } else {
+            rows = new HeapMessageRows(capacity, 0);
+        }
+        return new MessageStore(rows, myRacers, theParticipants);
+    }
+
+    /**
+     * Sets a listener which is told, from any parsing thread, each time another whole
+     * percent of the file has been parsed.
+     *
+     * @param theProgress the listener told the percentage parsed so far
+     */
+    void setProgressListener(final IntConsumer theProgress) {
+        myProgress = theProgress;
+    }
+
+    /**
+     * Streams the message section: messages are parsed in file order on the calling
+     * thread, and theLoadedTo is told, every so often, a race time before which every
+     * message is already stored and published. That time trails the latest time stamp
+     * parsed by a short reorder window, so messages may come a little out of time order.
+     * A message stamped earlier than a time already published stops the parse, and
+     * isOutOfOrder() tells it apart from a bad line; such a file has to be loaded whole.
+     *
+     * @param theLoadedTo the listener told the race time parsed so far
+     */
+    void setLoadedToListener(final IntConsumer theLoadedTo) {
+        myLoadedTo = theLoadedTo;
+    }
+
+    /**
+     * Registers a racer read from the participant section of the file.
+     *
+     * @param theRacer the racer
+     * @return true if the racer was registered, false if its ID was already registered
+     * or there are too many racers
+     */
+    boolean addParticipant(final Racer theRacer) {
+        return myRacers.register(theRacer) != RacerRegistry.NONE;
+    }
+
+    /**
+     * Returns the participants registered so far.
+     *
+     * @return the registry of participants, which must not be changed
+     */
+    RacerRegistry getParticipants() {
+        return myRacers;
+    }
+
+    /**
+     * Parses every remaining line of the file as a race message. Messages are added
+     * to theStore sorted by time stamp, those with the same time stamp in file order,
+     * and published to its readers. Parsing stops, and false is returned, if the thread
+     * which built this parser is interrupted.
+     *
+     * @param theStore the store parsed messages go to
+     * @param theRaceLength the number of milliseconds messages may be stamped with
+     * @param theParticipants the number of participants every leaderboard must hold
+     * @param theParallel true to parse newline aligned chunks on every core
+     * @return true if every line held a valid message, false otherwise
+     */
+    boolean parseMessages(final MessageStore theStore, final int theRaceLength,
+                          final int theParticipants, final boolean theParallel) {
+        final int cores = Runtime.getRuntime().availableProcessors();
+        final long start = myWindowStart + myPos;
+        final long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE,
+                                        (myLimit - start) / (cores * CHUNKS_PER_CORE)));
+        myStore = theStore;
+        myRaceLength = theRaceLength;
+        myBytesDone.set(start);
+        final boolean valid;
+        if (theParallel && myLoadedTo == null && cores > 1 && myLimit - start > chunkSize) {
+            valid = parseChunks(chunkSize, theParticipants);
+        } else {
+            valid = parseLines(theParticipants);
+        }
+        if (valid) {
+            theStore.sortByTime();
+        }
+        myStore = null;
+        if (valid && myProgress != null) {
+            myProgress.accept(ALL_DONE);
+        }
+        return valid;
+    }
+
+    /**
+     * Splits the rest of the file into newline aligned chunks, parses them all on
+     * the fork/join common pool and merges their messages in file order.
+     *
+     * @param theChunkSize the rough number of bytes in each chunk
+     * @param theParticipants the number of participants every leaderboard must hold
+     * @return true if every chunk held only valid messages, false otherwise
+     */
+    private boolean parseChunks(final long theChunkSize, final int theParticipants) {
+        final List<ChunkTask> tasks = new ArrayList<>();
+        long start = myWindowStart + myPos;
+        while (start < myLimit) {
+            long end = Math.min(start + theChunkSize, myLimit);
+            while (end < myLimit && byteAt(end - 1) != NEW_LINE) {
+                end++;
+            }
+            tasks.add(new ChunkTask(new RaceFileParser(this, start, end), theParticipants));
+            start = end;
+        }
+        myWindowStart = myLimit;
+        myPos = 0;
+        myWindowEnd = 0;
+        ForkJoinTask.invokeAll(tasks);
+        boolean valid = !myFailed.get();
+        for (int i = 0; valid && i < tasks.size(); i++) {
+            myStore.addAll(tasks.get(i).join());
+        }
+        return valid;
+    }
+
+    /**
+     * Parses lines until the end of this parser's bytes or until a bad line is found,
+     * here or in any other chunk of the same file.
+     *
+     * @param theParticipants the number of participants every leaderboard must hold
+     * @return true if every line held a valid message, false otherwise
+     */
+    private boolean parseLines(final int theParticipants) {
+        boolean valid = true;
+        long checkpoint = myWindowStart + myPos;
+        try {
+            while (valid && hasNextLine() && !myFailed.get()) {
+                findLineEnd();
+                valid = parseMessage(theParticipants);
+                skipLine();
+                final long done = myWindowStart + myPos;
+                if (done - checkpoint >= CHECKPOINT_BYTES) {
+                    checkpoint(done - checkpoint);
+                    checkpoint = done;
+                }
+            }
+        } catch (final NumberFormatException e) {
+            valid = false;
+        }
+        if (!valid) {
+            myFailed.set(true);
+        }
+        return valid && !myFailed.get();
+    }
+
+    /**
+     * Reports progress and publishes the streaming watermark after another stretch
+     * of bytes was parsed, and fails the whole parse if the loading thread was interrupted.
+     *
+     * @param theBytes the number of bytes parsed since the last checkpoint
+     */
+    private void checkpoint(final long theBytes) {
+        if (myOwner.isInterrupted()) {
+            myFailed.set(true);
+        } else if (myLoadedTo != null && myLatestTime - REORDER_MILLIS > myPublished) {
+            myPublished = myLatestTime - REORDER_MILLIS;
+            myStore.publishBefore(myPublished);
+            myLoadedTo.accept(myPublished);
+        }
+        if (!myFailed.get() && myProgress != null) {
+            final long done = myBytesDone.addAndGet(theBytes);
+            final int percent = (int) (done * ALL_DONE / myFileSize);
+            final int last = myPercent.get();
+            if (percent > last && myPercent.compareAndSet(last, percent)) {
+                myProgress.accept(percent);
+            }
+        }
+    }
+
+    /**
+     * Parses the current line as one race message.
+     *
+     * @param theParticipants the number of participants every leaderboard must hold
+     * @return true if the line held a valid message, false otherwise
+     */
+    private boolean parseMessage(final int theParticipants) {
+        boolean valid = myLineEnd - myPos >= 2 && myWindow[myPos] == MESSAGE_START;
+        if (valid) {
+            final byte type = myWindow[myPos + 1];
+            myFieldEnd = myPos - 1;
+            nextField();
+            if (type == 'T') {
+                valid = telemCheck();
+            } else if (type == 'L') {
+                valid = leadCheck(theParticipants);
+            } else if (type == 'C') {
+                valid = crossCheck();
+            } else {
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Checks and stores a telemetry message. $T:time:id:distance:lap
+     *
+     * @return true if the line held a valid message, false otherwise
+     */
+    private boolean telemCheck() {
+        boolean valid = nextField();
+        final int time = valid ? fieldInt() : -1;
+        valid = valid && nextField();
+        final int id = valid ? fieldInt() : -1;
+        valid = valid && nextField() && hasDecimals(DISTANCE_DECIMALS);
+        final int hundredths = valid ? fieldHundredths() : 0;
+        valid = valid && nextField();
+        final int lap = valid ? fieldInt() : -1;
+        final int racer = valid ? myRacers.indexOf(id) : RacerRegistry.NONE;
+        valid = valid && !nextField()
+                        && validTime(time) && racer != RacerRegistry.NONE && lap >= 0;
+        if (valid) {
+            myStore.addTelemetry(time, racer, hundredths, lap);
+            stored(time);
+        }
+        return valid;
+    }
+
+    /**
+     * Checks and stores a leaderboard message. $L:time:id:id:...
+     * Every participant must appear on the leaderboard exactly once.
+     *
+     * @param theParticipants the number of participants the leaderboard must hold
+     * @return true if the line held a valid message, false otherwise
+     */
+    private boolean leadCheck(final int theParticipants) {
+        boolean valid = nextField();
+        final int time = valid ? fieldInt() : -1;
+        valid = valid && validTime(time);
+        if (myOrder == null || myOrder.length != theParticipants) {
+            myOrder = new int[theParticipants];
+        }
+        if (mySeenStamp == null || mySeenStamp.length != myRacers.size()) {
+            mySeenStamp = new int[myRacers.size()];
+        }
+        myStamp++;
+        int counter = 0;
+        while (valid && counter < theParticipants) {
+            valid = nextField();
+            if (valid) {
+                final int racer = myRacers.indexOf(fieldInt());
+                // racers are registered, and repeating is cheating
+                valid = racer != RacerRegistry.NONE && mySeenStamp[racer] != myStamp;
+                if (valid) {
+                    mySeenStamp[racer] = myStamp;
+                    myOrder[counter] = racer;
+                }
+            }
+            counter++;
+        }
+        valid = valid && !nextField();
+        if (valid) {
+            myStore.addLeaderboard(time, myOrder);
+            stored(time);
+        }
+        return valid;
+    }
+
+    /**
+     * Checks and stores a line crossing message. $C:time:id:lap:finished
+     *
+     * @return true if the line held a valid message, false otherwise
+     */
+    private boolean crossCheck() {
+        boolean valid = nextField();
+        final int time = valid ? fieldInt() : -1;
+        valid = valid && nextField();
+        final int id = valid ? fieldInt() : -1;
+        valid = valid && nextField();
+        final int lap = valid ? fieldInt() : -1;
+        valid = valid && nextField();
+        final boolean finish = valid && fieldEquals(TRUE);
+        valid = valid && (finish || fieldEquals(FALSE));
+        final int racer = valid ? myRacers.indexOf(id) : RacerRegistry.NONE;
+        valid = valid && !nextField() && validTime(time) && racer != RacerRegistry.NONE
+                        && lap >= 1;
+        if (valid) {
+            myStore.addCrossing(time, racer, lap, finish);
+            stored(time);
+        }
+        return valid;
+    }
+
+    /**
+     * Finishes storing a parsed message. While streaming it is moved straight into
+     * time order, since readers may already be looking; otherwise it stays in file
+     * order and the store is sorted once parsing is done.
+     *
+     * @param theTime the time stamp of the stored message
+     */
+    private void stored(final int theTime) {
+        myLatestTime = Math.max(myLatestTime, theTime);
+        if (myLoadedTo != null) {
+            myStore.moveLastIntoOrder();
+        }
+    }
+
+    /**
+     * Determines if a time stamp falls inside the race, and, while streaming,
+     * is not earlier than a race time already published as completely parsed.
+     * A time stamp inside the race but too early is noted as out of order.
+     *
+     * @param theTime the time stamp to be tested
+     * @return true if the time stamp is inside the race and in order, false otherwise
+     */
+    private boolean validTime(final int theTime) {
+        final boolean inRace = theTime >= 0 && theTime < myRaceLength;
+        if (inRace && theTime < myPublished) {
+            myOutOfOrder = true;
+        }
+        return inRace && theTime >= myPublished;
+    }
+
+    /**
+     * Returns whether a streaming parse stopped at a message stamped before a race
+     * time already published, rather than at a bad line.
+     *
+     * @return true if the parse stopped at an out of order message, false otherwise
+     */
+    boolean isOutOfOrder() {
+        return myOutOfOrder;
+    }
+
+    /**
+     * Moves to the next field of the current line.
+     *
+     * @return true if there was another field, false if the line has ended
+     */
+    private boolean nextField() {
+        final boolean found = myFieldEnd < myLineEnd;
+        if (found) {
+            myFieldStart = myFieldEnd + 1;
+            int end = myFieldStart;
+            while (end < myLineEnd && myWindow[end] != SEPARATOR) {
+                end++;
+            }
+            myFieldEnd = end;
+        }
+        return found;
+    }
+
+    /**
+     * Parses the current field as an int.
+     *
+     * @return the int value of the current field
+     * @throws NumberFormatException if the field is not an int
+     */
+    private int fieldInt() {
+        return parseDigits(myFieldStart, myFieldEnd);
+    }
+
+    /**
+     * Parses the current field as a number with two decimal places, in hundredths.
+     * The whole part may be left out, as in .50, just like Double.parseDouble allows.
+     *
+     * @return the value of the current field in hundredths
+     * @throws NumberFormatException if the field is not a number
+     */
+    private int fieldHundredths() {
+        final int point = myFieldEnd - DISTANCE_DECIMALS - 1;
+        int start = myFieldStart;
+        final boolean negative = myWindow[start] == '-';
+        if (negative || myWindow[start] == '+') {
+            start++;
+        }
+        final long whole = start == point ? 0 : parseUnsigned(start, point);
+        final long value = whole * 100 + parseUnsigned(point + 1, myFieldEnd);
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException();
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Determines if the current field has a decimal point followed by exactly
+     * the given number of characters, the same rule the old split based check used.
+     *
+     * @param theDecimals the number of characters that must follow the point
+     * @return true if the field is rounded correctly, false otherwise
+     */
+    private boolean hasDecimals(final int theDecimals) {
+        int point = myFieldStart;
+        while (point < myFieldEnd && myWindow[point] != '.') {
+            point++;
+        }
+        return point < myFieldEnd && myFieldEnd - point - 1 == theDecimals;
+    }
+
+    /**
+     * Determines if the current field holds exactly the given bytes.
+     *
+     * @param theWord the bytes to compare against
+     * @return true if the field matches, false otherwise
+     */
+    private boolean fieldEquals(final byte[] theWord) {
+        boolean equal = myFieldEnd - myFieldStart == theWord.length;
+        for (int i = 0; equal && i < theWord.length; i++) {
+            equal = myWindow[myFieldStart + i] == theWord[i];
+        }
+        return equal;
+    }
+
+    /**
+     * Parses an optionally signed decimal int straight from the window.
+     *
+     * @param theStart the first byte of the number
+     * @param theEnd one past the last byte of the number
+     * @return the parsed int
+     * @throws NumberFormatException if the bytes are not an int
+     */
+    private int parseDigits(final int theStart, final int theEnd) {
+        int start = theStart;
+        final boolean negative = start < theEnd && myWindow[start] == '-';
+        if (negative || start < theEnd && myWindow[start] == '+') {
+            start++;
+        }
+        final long value = parseUnsigned(start, theEnd);
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException();
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Parses a run of decimal digits straight from the window.
+     *
+     * @param theStart the first digit
+     * @param theEnd one past the last digit
+     * @return the parsed value, never more than Integer.MAX_VALUE
+     * @throws NumberFormatException if the bytes are not all digits, or their value
+     * is more than Integer.MAX_VALUE
+     */
+    private long parseUnsigned(final int theStart, final int theEnd) {
+        if (theStart >= theEnd) {
+            throw new NumberFormatException();
+        }
+        long value = 0;
+        for (int pos = theStart; pos < theEnd; pos++) {
+            final int digit = myWindow[pos] - '0';
+            if (digit < 0 || digit >= RADIX) {
+                throw new NumberFormatException();
+            }
+            value = value * RADIX + digit;
+            if (value > Integer.MAX_VALUE) {
+                throw new NumberFormatException();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Finds the end of the line starting at the current position, first moving
+     * the window along the file until it holds the whole line.
+     */
+    private void findLineEnd() {
+        int end = myPos;
+        boolean partial = true;
+        while (partial) {
+            while (end < myWindowEnd && myWindow[end] != NEW_LINE) {
+                end++;
+            }
+            partial = end == myWindowEnd && myWindowStart + myWindowEnd < myLimit;
+            if (partial) {
+                end -= myPos;
+                slideWindow();
+            }
+        }
+        myNextLine = end + 1;
+        myLineEnd = end;
+        if (myLineEnd > myPos && myWindow[myLineEnd - 1] == RETURN) {
+            myLineEnd--;
+        }
+    }
+
+    /**
+     * Moves the window along the file so it starts at the current position, and
+     * copies in as many more bytes as fit. A window already holding nothing but
+     * the current line doubles in size first.
+     */
+    private void slideWindow() {
+        final int kept = myWindowEnd - myPos;
+        if (myPos == 0 && kept == myWindow.length) {
+            myWindow = Arrays.copyOf(myWindow, myWindow.length * 2);
+        } else {
+            System.arraycopy(myWindow, myPos, myWindow, 0, kept);
+        }
+        myWindowStart += myPos;
+        myPos = 0;
+        final int read = (int) Math.min(myWindow.length - kept, myLimit - myWindowStart - kept);
+        copy(myWindowStart + kept, kept, read);
+        myWindowEnd = kept + read;
+    }
+
+    /**
+     * Copies bytes of the file into the window, from as many segments as they span.
+     *
+     * @param thePosition the file position of the first byte
+     * @param theOffset where in the window the first byte goes
+     * @param theLength the number of bytes
+     */
+    private void copy(final long thePosition, final int theOffset, final int theLength) {
+        long position = thePosition;
+        int offset = theOffset;
+        final int end = theOffset + theLength;
+        while (offset < end) {
+            final MappedByteBuffer segment = mySegments[(int) (position >>> SEGMENT_SHIFT)];
+            final int from = (int) (position & SEGMENT_BYTES - 1);
+            final int length = Math.min(end - offset, segment.limit() - from);
+            segment.get(from, myWindow, offset, length);
+            position += length;
+            offset += length;
+        }
+    }
+
+    /**
+     * Returns the byte of the file at a position.
+     *
+     * @param thePosition the file position
+     * @return the byte there
+     */
+    private byte byteAt(final long thePosition) {
+        return mySegments[(int) (thePosition >>> SEGMENT_SHIFT)]
+                        .get((int) (thePosition & SEGMENT_BYTES - 1));
+    }
+
+    /**
+     * Moves the current position to the start of the next line.
+     */
+    private void skipLine() {
+        myPos = myNextLine;
+    }
+
+    /**
+     * A fork/join task which parses one chunk of the message section.
+     */
+    private static final class ChunkTask extends RecursiveTask<MessageStore> {
+
+        /** A generated serial version UID for object Serialization. */
+        private static final long serialVersionUID = -2315049880384201715L;
+
+        /** The parser reading this chunk. */
+        private final transient RaceFileParser myChunk;
+
+        /** The number of participants every leaderboard must hold. */
+        private final int myParticipants;
+
+        /**
+         * Constructs a task for one chunk.
+         *
+         * @param theChunk the parser reading this chunk
+         * @param theParticipants the number of participants every leaderboard must hold
+         */
+        ChunkTask(final RaceFileParser theChunk, final int theParticipants) {
+            super();
+            myChunk = theChunk;
+            myParticipants = theParticipants;
+        }
+
+        @Override
+        protected MessageStore compute() {
+            myChunk.parseLines(myParticipants);
+            return myChunk.myStore;
+        }
+    }
+}
@@ -1,544 +1,920 @@
-package model;
-
-import java.beans.PropertyChangeListener;
-import java.beans.PropertyChangeSupport;
-import java.io.File;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Scanner;
-import java.util.Set;
-
-/**
- * This program runs the Model for the Race Day program.
- * 
- * @author Conner Canning
- * @version 9 March 2019
- */
-public class RaceModel implements PropertyChangeEnabledRaceControls {
-    
-    /** Template file for testing against a potential race file. */
-    private static final File TEMPLATE_FILE = new File("./race_files/TEMPLATE.rce");
-    
-    /** Number of elements in a telemetry message. */
-    private static final int THINGS_IN_TELEM = 5;
-    
-    /** Maximum racer ID number, exclusive. */
-    private static final int MAX_RACER_NUMBER = 100;
-    
-    /** Common separation string for message values. */
-    private static final String SEPARATOR = ":";
-    
-    /** Holds the racers from a loaded race file. */
-    private final List<Racer> myRacers;
-    
-    /** Hold whether a racer has completed the race or not. */
-    private final Map<Integer, Boolean> myFinished = new HashMap<Integer, Boolean>();
-    
-    /** Holds the race participant IDs. */
-    private final List<Integer> myParticipantNumbers = new ArrayList<Integer>();
-    
-    /** Holds the messages from the loaded race file. */
-    private final List<List<Message>> myMessages = new ArrayList<List<Message>>();
-    
-    /** Holds the model race time. */
-    private int myTime;
-    
-    /** Manager for Property Change Listeners. */
-    private final PropertyChangeSupport myPcs;
-
-    /** Holds the race header information for loaded race. */
-    private RaceHeader myHeader;
-    
-    /** Holds which racers are currently toggled off. */
-    private final Set<Integer> myToggledOffRacers;
-
-    /**
-     * Constructs a RaceModel object.
-     */
-    public RaceModel() {
-        myPcs = new PropertyChangeSupport(this);
-        myTime = 0;
-        myRacers = new ArrayList<>();
-        myToggledOffRacers = new HashSet<>();
-    }
-
-    @Override
-    public void loadRace(final File theRaceFile) throws IOException {
-        myTime = 0;
-        myPcs.firePropertyChange(PROPERTY_TIME, null, myTime);
-        // ^ Fixes issue while loading race to a shorter race 
-        // at current race time higher than max of new loading shorter race
-        myPcs.firePropertyChange(PROPERTY_SENDING_STRING, null, 
-                                 "File is loading! Please wait :)\n");
-        final Scanner in = new Scanner(theRaceFile);
-        final Scanner template = new Scanner(TEMPLATE_FILE);
-        boolean valid = checkHeader(in, template);
-        if (valid) {
-            checkParticipants(in);
-            valid = checkMessages(in);
-        }
-        if (!valid) {
-            throw new IOException("Bad File.");
-        }
-        // Now that the race file is good, clear our old toggle list
-        myToggledOffRacers.clear();
-        // and set time equal to 0 in case it was higher in previous race
-        // than this new race even allows
-        changeTime(0);
-    }
-
-    /**
-     * Determines if a file holds valid race messages.
-     * 
-     * @param theTest a scanner reading a file to be tested
-     * @return true if the file only holds valid messages, false otherwise
-     */
-    private boolean checkMessages(final Scanner theTest) {
-        boolean valid = true;
-        String testLine;
-        myPcs.firePropertyChange(PROPERTY_SENDING_STRING, null, 
-                                 "Loading messages now, almost done!\n");
-        while (valid && theTest.hasNextLine()) {
-            testLine = theTest.nextLine();
-            if (testLine.startsWith("$T")) {
-                valid = telemCheck(testLine);
-            } else if (testLine.startsWith("$L")) {
-                valid = leadCheck(testLine);
-            } else if (testLine.startsWith("$C")) {
-                valid = crossCheck(testLine);
-            } else {
-                valid = false;
-            }              
-        }
-//        changeTime(0);
-        myPcs.firePropertyChange(PROPERTY_RACER_INFO, null, myRacers);
-        // ^ because some listeners only need racer info
-        myPcs.firePropertyChange(PROPERTY_HEADER_INFO, null, myHeader); 
-        // ^ race file loaded timing + giving header info
-
-        return valid;
-    }
-
-    /**
-     * Determines if a line crossing message string is valid / formatted correctly.
-     * Builds / stores a CrossingMessage object if the string holds a valid message.
-     * 
-     * @param theTestLine the string to be tested for a line crossing message
-     * @return true if the line holds a valid message, false otherwise
-     */
-    private boolean crossCheck(final String theTestLine) {
-        boolean valid = true;
-        final int locationTime = 1;
-        final int locationID = 2;
-        final int locationLap = 3;
-        final int locationFinish = 4;
-        final int crossMessageSize = 5;
-        final String[] sizeCheck = theTestLine.split(SEPARATOR);
-        valid = sizeCheck.length == crossMessageSize;
-        final int time = Integer.parseInt(sizeCheck[locationTime]);
-        final int id = Integer.parseInt(sizeCheck[locationID]);
-        final int lap = Integer.parseInt(sizeCheck[locationLap]);
-        final boolean finish = Boolean.parseBoolean(sizeCheck[locationFinish]);
-        if (valid) {
-            valid = validID(id) 
-                            && time >= 0
-                            && lap >= 1;
-        }
-        if (valid) { // no way you grade for whether someone has finished twice or not right?
-            if (sizeCheck[locationFinish].equals("true")) {
-                myFinished.put(Integer.parseInt(sizeCheck[2]), true);   
-            } else if (sizeCheck[locationFinish].equals("false")) {
-                myFinished.put(Integer.parseInt(sizeCheck[2]), false);
-            } else {
-                // Code could be changed from object storage to just a check
-                // if the string said "true" or "false", else valid = false. 
-                // Keeping this implementation for possibility of double finish checking.
-                valid = false;
-            }
-        }     //removed the check if they've finished twice because 
-              //messages continue after racers have completed their race laps
-        myMessages.get(time).add(new CrossingMessage(time, id, lap, finish));
-        return valid;
-    }
-
-    /**
-     * Determines if a leaderboard message string is valid / formatted correctly.
-     * Builds / stores a LeaderboardMessage object if the string holds a valid message.
-     * 
-     * @param theTestLine the string to be tested for a leaderboard message
-     * @return true if the line holds a valid message, false otherwise
-     */
-    private boolean leadCheck(final String theTestLine) {
-        boolean valid = true; 
-        // timestamp positive//
-        // each racer does exist//
-        // size of sizeCheck = n+2//
-        // no repeat racers in this list//
-        //System.out.println(theTestLine);                ///////////////
-        final String[] sizeCheck = theTestLine.split(SEPARATOR);
-        final int participants = myHeader.getNumParticipants();
-        valid = (sizeCheck.length == participants + 2)
-                        && Integer.parseInt(sizeCheck[1]) >= 0; 
-                        // size of line is good and positive timestamp     
-        int counter = 0;        
-        
-        while (valid && counter < participants) {
-            valid = validID(Integer.parseInt(sizeCheck[counter + 2])); // racers are registered
-            counter++;
-        } 
-        counter = 0;
-        final ArrayList<Integer> noRepeats = new ArrayList<Integer>();
-        while (valid && counter < participants) {          
-            // repeating is cheating, no double leaderboard appearance!
-            if (noRepeats.contains(Integer.parseInt(sizeCheck[counter + 2]))) {
-                valid = false;
-            }
-            noRepeats.add(Integer.parseInt(sizeCheck[counter + 2]));
-            counter++;
-        }
-        if (valid) {
-            final String[] leaderboard = new String[sizeCheck.length - 2];
-            System.arraycopy(sizeCheck, 2, leaderboard, 0, sizeCheck.length - 2);
-//            for (int i = 0; i < sizeCheck.length - 2; i++) {
-//                leaderboard[i] = sizeCheck[i + 2];
-//            } // not as effecient as System.arraycopy
-            myMessages.get(Integer.parseInt(sizeCheck[1])).
-                add(new LeaderboardMessage(Integer.parseInt(sizeCheck[1]), leaderboard));
-        } 
-        return valid; 
-        
-    }
-
-
-    /**
-     * Determines if a telemetry message string is valid / formatted correctly.
-     * Builds / stores a TelemetryMessage object if the string holds a valid message. 
-     * 
-     * @param theTest the string to be tested for a telemetry message
-     * @return true if the line is holds a valid message, false otherwise
-     */
-    private boolean telemCheck(final String theTest) {
-        boolean valid = true;
-        final int locationTime = 1;
-        final int locationID = 2;
-        final int locationDist = 3;
-        final int locationLap = 4;
-        final int time;
-        final int id;
-        final double dist;
-        final int lap;
-        final String[] sizeCheck = theTest.split(SEPARATOR);
-        valid = sizeCheck.length == THINGS_IN_TELEM; 
-        if (valid) {
-            time = Integer.parseInt(sizeCheck[locationTime]);
-            id = Integer.parseInt(sizeCheck[locationID]);
-            dist = Double.parseDouble(sizeCheck[locationDist]);
-            lap = Integer.parseInt(sizeCheck[locationLap]);
-
-            valid = validID(id) && time >= 0 && lap >= 0;
-
-            if (valid) {
-                final int placeholder = sizeCheck[locationDist].indexOf('.');
-                valid = sizeCheck[locationDist].substring(placeholder).length() 
-                                == locationDist;
-                // rounded to 2 decimal places
-                if (valid) {
-                    myMessages.get(time).add(new TelemetryMessage(time, id, dist, lap));
-                }
-            }
-        }
-        return valid;
-    }
-
-    /**
-     * Determines if a given racer ID int appeared in the file header.
-     * Used to determine if a message contains information about racers 
-     * who were not noted in the header of the file.
-     * 
-     * @param theInID the racer ID to be tested
-     * @return true if the ID is registered, false otherwise
-     */
-    private boolean validID(final int theInID) {
-        return myParticipantNumbers.contains(theInID);
-    }
-    
-    
-    
-
-    /**
-     * Helper method to determine if a given file is properly formatted
-     * to give racer information, throws an exception if the file does not
-     * properly format racer information.
-     * 
-     * @param theTest scanner reading test file
-     * @return true if the test file is formatted correctly, false otherwise
-     */
-    private boolean checkParticipants(final Scanner theTest) {
-        String testLine;
-        boolean valid = true;
-        try {
-            myRacers.clear();
-            for (int i = 0; i < myHeader.getNumParticipants(); i++) {
-                testLine = theTest.nextLine();
-                eachParticipantLine(testLine);
-            }
-
-        } catch (final IOException e) {
-            valid = false;
-        } catch (final NumberFormatException e) {
-            valid = false;
-        } catch (final StringIndexOutOfBoundsException e) {
-            valid = false;
-        }   // I THINK that's all exceptions
-        return valid;
-    }
-    
-    /**
-     * Builds Racer object if the given string is formatted correctly
-     * to represent a race participant. Throws an exception if the 
-     * given string is not formatted correctly.
-     * 
-     * @param theLine the line with an intended participant
-     * @throws IOException if the line is not formatted correctly
-     */
-    private void eachParticipantLine(final String theLine) throws IOException {
-        final String[] lineHolder;
-        final int racerNumber;
-        final String racerName;
-        final double startDistance;
-        if (theLine.charAt(0) == '#') {
-            final String line = theLine.substring(1);
-            lineHolder = line.split(SEPARATOR);
-            racerNumber = Integer.parseInt(lineHolder[0]);
-            if (racerNumber < MAX_RACER_NUMBER && racerNumber > 0) {
-                myParticipantNumbers.add(racerNumber);
-            } else {
-                throw new IOException("this one here @4444");
-            }
-            racerName = lineHolder[1];
-            startDistance = Double.parseDouble(lineHolder[2]);
-            myRacers.add(new Racer(racerNumber, racerName, startDistance));
-        } else {
-            throw new IOException("this one @33333");
-        }
-    }
-    
-    /**
-     * Checks the first 7 header lines of a document.
-     * 
-     * @param theTest Scanner of file to be tested for validity
-     * @param theKey Scanner of template file
-     * @return true if the files are similar, false otherwise
-     * @throws IOException if there is any issue or error with file comparison
-     */
-    private boolean checkHeader(final Scanner theTest, final Scanner theKey) {
-        boolean valid;
-        String testLine;
-        String templateLine;
-        try {
-            myPcs.firePropertyChange(PROPERTY_SENDING_STRING, null, 
-                                     "Loading race information, please wait.\n");
-            
-            testLine = theTest.nextLine();
-            templateLine = theKey.nextLine();
-            final boolean checkName = 
-                            testLine.substring(0, templateLine.length()).equals(templateLine);
-            final String name = testLine.substring(templateLine.length());
-            
-            testLine = theTest.nextLine();
-            templateLine = theKey.nextLine();
-            final boolean checkTrack = 
-                            testLine.substring(0, templateLine.length()).equals(templateLine);
-            final String track = testLine.substring(templateLine.length());
-            
-            testLine = theTest.nextLine();
-            templateLine = theKey.nextLine();
-            final boolean checkWidth = 
-                            testLine.substring(0, templateLine.length()).equals(templateLine);
-            final int width = Integer.parseInt(testLine.substring(templateLine.length()));
-            
-            testLine = theTest.nextLine();
-            templateLine = theKey.nextLine();
-            final boolean checkHeight = 
-                            testLine.substring(0, templateLine.length()).equals(templateLine);
-            final int height = Integer.parseInt(testLine.substring(templateLine.length()));
-
-            testLine = theTest.nextLine();
-            templateLine = theKey.nextLine();
-            final boolean checkDistance = 
-                            testLine.substring(0, templateLine.length()).equals(templateLine);
-            final int distance = Integer.parseInt(testLine.substring(templateLine.length()));
-
-            testLine = theTest.nextLine();
-            templateLine = theKey.nextLine();
-            final boolean checkTime = 
-                            testLine.substring(0, templateLine.length()).equals(templateLine);
-            final int time = Integer.parseInt(testLine.substring(templateLine.length()));
-            
-            // Cyclic complexity workaround :(
-            buildMessageArray(time);
-            
-            testLine = theTest.nextLine();
-            templateLine = theKey.nextLine();
-            final boolean checkParticipants = 
-                            testLine.substring(0, templateLine.length()).equals(templateLine);
-            final int numPart = Integer.parseInt(testLine.substring(templateLine.length()));
-            
-            myHeader = new RaceHeader(name, track, width, height, distance, time, numPart);
-            
-            valid = checkTrack && checkName && checkTime && checkWidth 
-                            && checkHeight && checkDistance && checkTime 
-                            && checkParticipants;
-
-        } catch (final NumberFormatException e) {
-            valid = false;
-        } catch (final NoSuchElementException e) {
-            valid = false;
-        }
-        return valid;
-    }
-    
-    /** 
-     * Helper method which instantiates the message holding data structure 
-     * when the required size is known. 
-     * 
-     * @param theSize the number of messages that need to be stored
-     */
-    private void buildMessageArray(final int theSize) {
-        // Clear myMessages from any previous file loadings
-        myMessages.clear();
-        // Build a large enough array to hold messages for every possible millisecond
-        for (int i = 0; i < theSize + 1; i++) {
-            myMessages.add(new ArrayList<Message>());
-        }
-    }
-
-    @Override
-    public void advance() {
-        advance(1);
-    }
-
-    @Override
-    public void advance(final int theMillisecond) {
-        changeTime(myTime + theMillisecond);
-    }
-
-    @Override
-    public void moveTo(final int theMillisecond) {
-        if (theMillisecond < 0) {
-            throw new IllegalArgumentException("ERROR_MESSAGE");
-        }
-        changeTime(theMillisecond);
-    }
-    
-    /**
-     * Helper method to change the value of time and notify observers. 
-     * 
-     * @param theMillisecond the time to change to
-     */
-    private void changeTime(final int theMillisecond) {
-        final int old = myTime;
-        myTime = theMillisecond;
-        if (theMillisecond > myHeader.getTime()) {
-            myTime = myHeader.getTime();
-            myPcs.firePropertyChange(PROPERTY_RACE_COMPLETE, false, true);
-        }
-        myPcs.firePropertyChange(PROPERTY_TIME, old, myTime);
-        
-        if (old < myTime) {
-            for (int i = old; i < myTime; i++) {
-                final int numMess = myMessages.get(i).size();
-                for (int j = 0; j < numMess; j++) {
-                    final Message mess = myMessages.get(i).get(j);
-                    if (isToggledOnMessage(mess)) {
-                        myPcs.firePropertyChange(PROPERTY_NEW_MESSAGES, null,
-                                             myMessages.get(i).get(j));    
-                    }
-                }                
-            }
-        } else {
-            handleGoingBackwards(old);
-        }    
-    }
-    
-    /**
-     * Helper method which handles the model time being changed backwards and
-     * notifies observes. Property Change behavior is different when going 
-     * backwards, only "the new most recent leaderboard and telemetry message" get fired. 
-     * 
-     * @param theOldTime the time the model held before changeTime was called
-     */
-    private void handleGoingBackwards(final int theOldTime) {
-        boolean foundTelem = false;
-        boolean foundLead = false;
-        for (int i = myTime; i < theOldTime; i++) {
-            for (final Message m : myMessages.get(i)) {
-                if (!foundTelem && m.getType() == Message.TELEM_START 
-                                && isToggledOnMessage(m)) {
-                    myPcs.firePropertyChange(PROPERTY_NEW_MESSAGES, null, m);
-                    foundTelem = true;
-                }
-                if (!foundLead && m.getType().equals(Message.LEAD_START)) {
-                    myPcs.firePropertyChange(PROPERTY_NEW_MESSAGES, null, m);
-                    foundLead = true;
-                }
-            }
-        }
-    }
-    
-    /**
-     * Determines if a message should be shown to the controller.
-     * Telemetry messages about toggled off racers should not be shown,
-     * so this method will return false for those messages.
-     * 
-     * @param theMessage to be tested
-     * @return false if the message should be censored, true otherwise
-     */
-    private boolean isToggledOnMessage(final Message theMessage) {
-        boolean toReturn = true;
-        if (theMessage.getType().equals(Message.TELEM_START)) {
-            final TelemetryMessage telemMessage = (TelemetryMessage) theMessage;
-            if (myToggledOffRacers.contains(telemMessage.getID())) {
-                toReturn = false;
-            }
-        }
-        return toReturn;
-    }
-
-    @Override
-    public void toggleParticipant(final int theParticpantID, final boolean theToggle) {
-        if (theToggle) {
-            myToggledOffRacers.remove(theParticpantID);
-        } else {
-            myToggledOffRacers.add(theParticpantID);
-        }
-    }
-
-    @Override
-    public void addPropertyChangeListener(final PropertyChangeListener theListener) {
-        myPcs.addPropertyChangeListener(theListener);
-    }
-
-    @Override
-    public void addPropertyChangeListener(final String thePropertyName,
-                                          final PropertyChangeListener theListener) {
-        myPcs.addPropertyChangeListener(thePropertyName, theListener);
-    }
-
-    @Override
-    public void removePropertyChangeListener(final PropertyChangeListener theListener) {
-        myPcs.removePropertyChangeListener(theListener);
-    }
-
-    @Override
-    public void removePropertyChangeListener(final String thePropertyName,
-                                             final PropertyChangeListener theListener) {
-        myPcs.removePropertyChangeListener(thePropertyName, theListener);
-    }
-
-}
+package model;
+
+import java.awt.EventQueue;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * This program runs the Model for the Race Day program.
+ * 
+ * @author Conner Canning
+ * @version 9 March 2019
+ */
+public class RaceModel implements PropertyChangeEnabledRaceControls {
+    
+    /** Template file for testing against a potential race file. */
+    private static final File TEMPLATE_FILE = new File("./race_files/TEMPLATE.rce");
+    
+    /** Common separation string for message values. */
+    private static final String SEPARATOR = ":";
+    
+    /** Percentage of a completely loaded race. */
+    private static final int ALL_DONE = 100;
+    
+    /** The lap every racer is on at the start of a race. */
+    private static final int START_LAP = 1;
+    
+    /** Race milliseconds between keyframes, and the farthest a seek replays. */
+    private static final int KEYFRAME_INTERVAL = 10000;
+    
+    /** 
+     * Messages a range must hold for each racer whose telemetry is shown before 
+     * gathering shown racers' telemetry beats reading every message of the range. 
+     */
+    private static final int MESSAGES_PER_SHOWN_RACER = 8;
+    
+    /** Holds the racers from a loaded race file, by racer index. */
+    private RacerRegistry myRacers;
+    
+    /** Holds the messages from the loaded race file, sorted by time. */
+    private MessageStore myMessages;
+    
+    /** Holds the model race time. */
+    private int myTime;
+    
+    /** Manager for Property Change Listeners. */
+    private final PropertyChangeSupport myPcs;
+    
+    /** Delivers race events to typed listeners. */
+    private final RaceEventBus myBus;
+    
+    /** Passes race events from the bus on to Property Change Listeners. */
+    private final PropertyChangeAdapter myAdapter;
+
+    /** Holds the race header information for loaded race. */
+    private RaceHeader myHeader;
+    
+    /** Holds which racers and message types are currently toggled off. */
+    private final MessageFilter myFilter;
+    
+    /** Scratch space for the indexes of the stored messages being sent. */
+    private int[] mySelected;
+    
+    /** Holds whether race messages are parsed in chunks on every core while loading. */
+    private boolean myParallelLoading;
+
+    /** Runs loaded races and loading events on the thread listeners expect them on. */
+    private final Executor myModelThread;
+    
+    /** Holds whether background loads put the race in place before its messages are read. */
+    private boolean myStreamingLoading;
+    
+    /** Holds the race currently in place, which may still be streaming in. */
+    private LoadedRace myLoaded;
+    
+    /** Race files larger than this many bytes keep their messages off the heap. */
+    private long myOffHeapThreshold;
+
+    /**
+     * Constructs a RaceModel object which hands races loaded in the background 
+     * to the Swing event dispatch thread.
+     */
+    public RaceModel() {
+        this(EventQueue::invokeLater);
+    }
+    
+    /**
+     * Constructs a RaceModel object which hands races loaded in the background 
+     * to the given thread. All other calls on this model should come from the same thread.
+     * 
+     * @param theModelThread runs the events and race replacement of background loads
+     */
+    public RaceModel(final Executor theModelThread) {
+        myModelThread = theModelThread;
+        myPcs = new PropertyChangeSupport(this);
+        myBus = new RaceEventBus();
+        myAdapter = new PropertyChangeAdapter(myBus, myPcs);
+        myTime = 0;
+        myRacers = new RacerRegistry();
+        myMessages = new MessageStore();
+        myLoaded = new LoadedRace();
+        myFilter = new MessageFilter();
+        mySelected = new int[0];
+        myParallelLoading = true;
+        myOffHeapThreshold = Runtime.getRuntime().maxMemory() / 2;
+    }
+    
+    /**
+     * Sets whether race messages are parsed in newline aligned chunks on every core
+     * while loading, or on the loading thread alone. Small files are always parsed 
+     * on the loading thread. Parallel loading is on by default.
+     * 
+     * @param theParallel true to parse messages on every core, false otherwise
+     */
+    public void setParallelLoading(final boolean theParallel) {
+        myParallelLoading = theParallel;
+    }
+    
+    /**
+     * Sets the race file size above which loaded messages are kept off the heap, in 
+     * memory mapped scratch files the operating system pages in as playback needs them.
+     * 0 keeps every race off the heap and Long.MAX_VALUE keeps every race on it. 
+     * By default races larger than half the maximum heap size are kept off the heap.
+     * 
+     * @param theFileSize the race file size, in bytes, above which messages are off the heap
+     */
+    public void setOffHeapThreshold(final long theFileSize) {
+        myOffHeapThreshold = theFileSize;
+    }
+    
+    /**
+     * Sets whether new messages are sent one PROPERTY_NEW_MESSAGES event at a time, 
+     * or all messages of one time change together as a single PROPERTY_MESSAGE_BATCH 
+     * event. Batched delivery is off by default.
+     * 
+     * @param theBatched true to send messages in batches, false to send them one by one
+     */
+    public void setBatchedDelivery(final boolean theBatched) {
+        myAdapter.setBatchedDelivery(theBatched);
+    }
+    
+    /**
+     * Returns the bus this model sends race time, header, racer, message and race 
+     * complete events through. Its typed listeners are called without 
+     * PropertyChangeEvents being built; Property Change Listeners of this model 
+     * are sent the same events through the bus.
+     * 
+     * @return the event bus of this model
+     */
+    public RaceEventBus getEventBus() {
+        return myBus;
+    }
+
+    @Override
+    public void loadRace(final File theRaceFile) throws IOException {
+        try {
+            installRace(readRace(theRaceFile, Runnable::run, false, false));
+        } catch (final InterruptedException | ExecutionException e) {
+            // only streamed races wait on the model thread
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    @Override
+    public Future<RaceHeader> loadRaceAsync(final File theRaceFile) {
+        final boolean streaming = myStreamingLoading;
+        final FutureTask<RaceHeader> task = new FutureTask<RaceHeader>(() -> {
+            final Thread loader = Thread.currentThread();
+            final LoadedRace race = readRace(theRaceFile, event -> {
+                if (!loader.isInterrupted()) {
+                    myModelThread.execute(event);
+                }
+            }, true, streaming);
+            if (!streaming) {
+                installOnModelThread(race);
+            }
+            return race.myHeader;
+        }) {
+            @Override
+            protected void done() {
+                IOException failure = null;
+                if (isCancelled()) {
+                    failure = new InterruptedIOException("Loading cancelled.");
+                } else {
+                    try {
+                        get();
+                    } catch (final ExecutionException e) {
+                        failure = e.getCause() instanceof IOException 
+                                        ? (IOException) e.getCause() : new IOException(e);
+                    } catch (final InterruptedException e) {
+                        failure = new InterruptedIOException("Loading cancelled.");
+                    }
+                }
+                if (failure == null) {
+                    // sent once the load is done, so a listener holding its Future sees it so
+                    myModelThread.execute(() -> myPcs.firePropertyChange(
+                                    PROPERTY_LOAD_PROGRESS, null, ALL_DONE));
+                } else {
+                    fireLoadFailed(failure);
+                }
+            }
+        };
+        final Thread loader = new Thread(task, "Race file loader");
+        loader.setDaemon(true);
+        loader.start();
+        return task;
+    }
+    
+    /**
+     * Sets whether background loads stream the race: the race replaces the current one
+     * as soon as the header and participants are read, and messages keep loading behind 
+     * it. Playback never moves past getLoadedTo() while messages are still loading. 
+     * Messages may come up to a second of race time out of order; a file further out of
+     * order is loaded again whole before it is played. A bad line, or cancelling, puts 
+     * the race held before back in place. Streaming is off by default.
+     * 
+     * @param theStreaming true to stream background loads, false otherwise
+     */
+    public void setStreamingLoading(final boolean theStreaming) {
+        myStreamingLoading = theStreaming;
+    }
+    
+    /**
+     * Returns the race time up to which messages are loaded. This is the race length
+     * unless a streaming load is still reading messages.
+     * 
+     * @return the race time up to which playback may go
+     */
+    public int getLoadedTo() {
+        return myLoaded.myLoadedTo;
+    }
+    
+    /**
+     * Returns a racer's latest telemetry stamped at or before a race time, 
+     * found with a binary search over that racer's telemetry alone.
+     * 
+     * @param theRacerID the racer ID
+     * @param theTime the race time
+     * @return the latest telemetry message, or null if the racer has none by then
+     * or is not in the loaded race
+     */
+    public TelemetryMessage getTelemetryAt(final int theRacerID, final int theTime) {
+        final int racer = myMessages.indexOfRacer(theRacerID);
+        TelemetryMessage telem = null;
+        if (racer >= 0) {
+            final int row = myLoaded.myTelemetry.latest(myMessages, racer, theTime);
+            if (row != TelemetryIndex.NONE) {
+                telem = (TelemetryMessage) myMessages.get(row);
+            }
+        }
+        return telem;
+    }
+    
+    /**
+     * Runs installRace on the model thread and waits for it.
+     * 
+     * @param theRace the race to hold from now on
+     * @return the race held before
+     * @throws InterruptedException if the load was cancelled while waiting, in which 
+     * case the race is not installed unless the model thread had already begun to
+     * @throws ExecutionException if installing the race threw an exception
+     */
+    private LoadedRace installOnModelThread(final LoadedRace theRace) 
+                    throws InterruptedException, ExecutionException {
+        final FutureTask<LoadedRace> install = new FutureTask<>(() -> {
+            final LoadedRace previous = myLoaded;
+            installRace(theRace);
+            return previous;
+        });
+        myModelThread.execute(install);
+        final LoadedRace previous;
+        try {
+            previous = install.get();
+        } catch (final InterruptedException e) {
+            // Cancelled before the model thread got to it, so leave the old race be
+            install.cancel(false);
+            throw e;
+        }
+        return previous;
+    }
+    
+    /**
+     * Notifies listeners, on the model thread, that a background load failed.
+     * 
+     * @param theFailure why the load failed, an InterruptedIOException when cancelled
+     */
+    private void fireLoadFailed(final IOException theFailure) {
+        myModelThread.execute(() -> {
+            if (theFailure instanceof InterruptedIOException) {
+                myPcs.firePropertyChange(PROPERTY_SENDING_STRING, null, "Loading cancelled.\n");
+            }
+            myPcs.firePropertyChange(PROPERTY_LOAD_FAILED, null, theFailure);
+        });
+    }
+    
+    /**
+     * Reads and checks a race file without touching the race currently held by this 
+     * model, so a bad or cancelled file leaves the old race playable. A streamed race is 
+     * instead put in place on the model thread as soon as its participants are read, and 
+     * taken back out again if its messages do not all load. A streamed file too far out 
+     * of time order is then read again whole and put in place once loaded.
+     * 
+     * @param theRaceFile the file to read
+     * @param theEvents runs the property changes fired while reading
+     * @param theReportProgress true to fire load progress while reading messages
+     * @param theStreaming true to put the race in place before its messages are read
+     * @return the race held by the file
+     * @throws IOException when the file is not in the appropriate format, or
+     * when the loading thread was interrupted
+     * @throws InterruptedException when cancelled while waiting for a streamed race
+     * to be put in place
+     * @throws ExecutionException if putting a streamed race in place threw an exception
+     */
+    private LoadedRace readRace(final File theRaceFile, final Executor theEvents, 
+                                final boolean theReportProgress, final boolean theStreaming)
+                    throws IOException, InterruptedException, ExecutionException {
+        theEvents.execute(() -> myPcs.firePropertyChange(PROPERTY_SENDING_STRING, null, 
+                                 "File is loading! Please wait :)\n"));
+        final LoadedRace race = new LoadedRace();
+        final RaceFileParser in = new RaceFileParser(theRaceFile);
+        if (theReportProgress) {
+            in.setProgressListener(percent -> theEvents.execute(
+                () -> myPcs.firePropertyChange(PROPERTY_LOAD_PROGRESS, null, percent)));
+        }
+        final Scanner template = new Scanner(TEMPLATE_FILE);
+        theEvents.execute(() -> myPcs.firePropertyChange(PROPERTY_SENDING_STRING, null, 
+                                 "Loading race information, please wait.\n"));
+        boolean valid = checkHeader(in, template, race);
+        template.close();
+        if (valid) {
+            valid = checkParticipants(in, race);
+            race.myRacers = in.getParticipants();
+        }
+        if (valid) {
+            final boolean offHeap = theRaceFile.length() > myOffHeapThreshold;
+            race.myMessages = in.createStore(race.myHeader.getNumParticipants(), offHeap);
+            race.myKeyframes = new KeyframeIndex(race.myMessages.getRacerCount(), 
+                                                 KEYFRAME_INTERVAL);
+            race.myTelemetry = new TelemetryIndex(race.myMessages.getRacerCount(), offHeap);
+            theEvents.execute(() -> myPcs.firePropertyChange(PROPERTY_SENDING_STRING, null, 
+                                     "Loading messages now, almost done!\n"));
+            if (theStreaming) {
+                in.setLoadedToListener(time -> publishLoadedTo(race, time, theEvents));
+                valid = streamMessages(in, race, installOnModelThread(race), theEvents);
+            } else {
+                valid = checkMessages(in, race, theEvents);
+            }
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Loading cancelled.");
+        }
+        LoadedRace loaded = race;
+        if (!valid && in.isOutOfOrder()) {
+            theEvents.execute(() -> myPcs.firePropertyChange(PROPERTY_SENDING_STRING, null, 
+                                     "Messages are out of time order, loading all of them "
+                                     + "first.\n"));
+            loaded = readRace(theRaceFile, theEvents, theReportProgress, false);
+            installOnModelThread(loaded);
+        } else if (!valid) {
+            throw new IOException("Bad File.");
+        }
+        return loaded;
+    }
+    
+    /**
+     * Reads the messages of a race already put in place while it streams in. If they do
+     * not all load, whether from a bad line, cancelling or an exception, the race held 
+     * before is put back on the model thread and the streamed race is dropped, so no
+     * half loaded race stays playable.
+     * 
+     * @param theTest a parser reading the file, past its participants
+     * @param theRace the race in place, being read
+     * @param thePrevious the race held before theRace was put in place
+     * @param theEvents runs the property changes fired while reading
+     * @return true if the file only holds valid messages, false otherwise
+     * @throws IOException if more off heap scratch space could not be mapped
+     */
+    private boolean streamMessages(final RaceFileParser theTest, final LoadedRace theRace,
+                                   final LoadedRace thePrevious, final Executor theEvents)
+                    throws IOException {
+        boolean valid = false;
+        try {
+            valid = checkMessages(theTest, theRace, theEvents);
+        } finally {
+            if (!valid || Thread.currentThread().isInterrupted()) {
+                // the model thread, not theEvents, since a cancelled load drops its events
+                myModelThread.execute(() -> {
+                    if (myLoaded == theRace) {
+                        installRace(thePrevious);
+                    }
+                });
+            }
+        }
+        return valid;
+    }
+    
+    /**
+     * Moves a race's loaded-up-to watermark forward and notifies listeners.
+     * 
+     * @param theRace the race being loaded
+     * @param theTime the race time before which every message is now loaded
+     * @param theEvents runs the property change
+     * @throws UncheckedIOException if more off heap index space could not be mapped
+     */
+    private void publishLoadedTo(final LoadedRace theRace, final int theTime, 
+                                 final Executor theEvents) {
+        final int loadedTo = Math.min(theTime, theRace.myHeader.getTime());
+        theRace.myKeyframes.extend(theRace.myMessages, loadedTo);
+        theRace.myTelemetry.extend(theRace.myMessages, loadedTo);
+        theRace.myLoadedTo = loadedTo;
+        theEvents.execute(() -> {
+            if (myLoaded == theRace) {
+                myPcs.firePropertyChange(PROPERTY_LOADED_TO, null, loadedTo);
+            }
+        });
+    }
+    
+    /**
+     * Replaces the race held by this model with a newly read race and 
+     * notifies listeners, all at once on the calling thread. Putting back the empty 
+     * race held before any race was loaded sends listeners a null header.
+     * 
+     * @param theRace the race to hold from now on
+     */
+    private void installRace(final LoadedRace theRace) {
+        myTime = 0;
+        myBus.fireTime(myTime);
+        // ^ Fixes issue while loading race to a shorter race 
+        // at current race time higher than max of new loading shorter race
+        myLoaded = theRace;
+        myHeader = theRace.myHeader;
+        myRacers = theRace.myRacers;
+        myMessages = theRace.myMessages;
+        myBus.fireRacers(myRacers);
+        // ^ because some listeners only need racer info
+        myBus.fireHeader(myHeader); 
+        // ^ race file loaded timing + giving header info
+        myPcs.firePropertyChange(PROPERTY_LOADED_TO, null, theRace.myLoadedTo);
+        // Now that the race file is good, clear our old toggle list
+        myFilter.reset(myRacers.size());
+        // and set time equal to 0 in case it was higher in previous race
+        // than this new race even allows
+        if (myHeader != null) {
+            changeTime(0, true);
+        }
+    }
+
+    /**
+     * Determines if a file holds valid race messages, and if so marks the race as 
+     * loaded to its end.
+     * 
+     * @param theTest a parser reading a file to be tested
+     * @param theRace the race being read
+     * @param theEvents runs the property changes fired while reading
+     * @return true if the file only holds valid messages, false otherwise
+     * @throws IOException if more off heap scratch space could not be mapped
+     */
+    private boolean checkMessages(final RaceFileParser theTest, final LoadedRace theRace,
+                                  final Executor theEvents) throws IOException {
+        final boolean valid;
+        try {
+            valid = theTest.parseMessages(theRace.myMessages, theRace.myHeader.getTime() + 1,
+                                          theRace.myHeader.getNumParticipants(), 
+                                          myParallelLoading);
+            if (valid) {
+                publishLoadedTo(theRace, theRace.myHeader.getTime(), theEvents);
+            }
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return valid;
+    }
+
+    /**
+     * Helper method to determine if a given file is properly formatted
+     * to give racer information, throws an exception if the file does not
+     * properly format racer information.
+     * 
+     * @param theTest parser reading test file
+     * @param theRace the race being read
+     * @return true if the test file is formatted correctly, false otherwise
+     */
+    private boolean checkParticipants(final RaceFileParser theTest, final LoadedRace theRace) {
+        String testLine;
+        boolean valid = true;
+        try {
+            for (int i = 0; i < theRace.myHeader.getNumParticipants(); i++) {
+                testLine = theTest.nextLine();
+                eachParticipantLine(testLine, theTest);
+            }
+
+        } catch (final IOException e) {
+            valid = false;
+        } catch (final NumberFormatException e) {
+            valid = false;
+        } catch (final StringIndexOutOfBoundsException e) {
+            valid = false;
+        }   // I THINK that's all exceptions
+        return valid;
+    }
+    
+    /**
+     * Builds Racer object if the given string is formatted correctly
+     * to represent a race participant. Throws an exception if the 
+     * given string is not formatted correctly.
+     * 
+     * @param theLine the line with an intended participant
+     * @param theParser the parser which registers the participant and checks messages
+     * against it
+     * @throws IOException if the line is not formatted correctly
+     */
+    private void eachParticipantLine(final String theLine, final RaceFileParser theParser)
+                    throws IOException {
+        final String[] lineHolder;
+        final int racerNumber;
+        final String racerName;
+        final double startDistance;
+        if (theLine.charAt(0) == '#') {
+            final String line = theLine.substring(1);
+            lineHolder = line.split(SEPARATOR);
+            racerNumber = Integer.parseInt(lineHolder[0]);
+            racerName = lineHolder[1];
+            startDistance = Double.parseDouble(lineHolder[2]);
+            // any positive 32 bit ID, once each, for up to RacerRegistry.MAX_RACERS racers
+            if (racerNumber <= 0 || !theParser.addParticipant(
+                            new Racer(racerNumber, racerName, startDistance))) {
+                throw new IOException("this one here @4444");
+            }
+        } else {
+            throw new IOException("this one @33333");
+        }
+    }
+    
+    /**
+     * Checks the first 7 header lines of a document.
+     * 
+     * @param theTest parser of file to be tested for validity
+     * @param theKey Scanner of template file
+     * @param theRace the race being read
+     * @return true if the files are similar, false otherwise
+     */
+    private boolean checkHeader(final RaceFileParser theTest, final Scanner theKey,
+                                final LoadedRace theRace) {
+        boolean valid;
+        String testLine;
+        String templateLine;
+        try {
+            testLine = theTest.nextLine();
+            templateLine = theKey.nextLine();
+            final boolean checkName = 
+                            testLine.substring(0, templateLine.length()).equals(templateLine);
+            final String name = testLine.substring(templateLine.length());
+            
+            testLine = theTest.nextLine();
+            templateLine = theKey.nextLine();
+            final boolean checkTrack = 
+                            testLine.substring(0, templateLine.length()).equals(templateLine);
+            final String track = testLine.substring(templateLine.length());
+            
+            testLine = theTest.nextLine();
+            templateLine = theKey.nextLine();
+            final boolean checkWidth = 
+                            testLine.substring(0, templateLine.length()).equals(templateLine);
+            final int width = Integer.parseInt(testLine.substring(templateLine.length()));
+            
+            testLine = theTest.nextLine();
+            templateLine = theKey.nextLine();
+            final boolean checkHeight = 
+                            testLine.substring(0, templateLine.length()).equals(templateLine);
+            final int height = Integer.parseInt(testLine.substring(templateLine.length()));
+
+            testLine = theTest.nextLine();
+            templateLine = theKey.nextLine();
+            final boolean checkDistance = 
+                            testLine.substring(0, templateLine.length()).equals(templateLine);
+            final int distance = Integer.parseInt(testLine.substring(templateLine.length()));
+
+            testLine = theTest.nextLine();
+            templateLine = theKey.nextLine();
+            final boolean checkTime = 
+                            testLine.substring(0, templateLine.length()).equals(templateLine);
+            final int time = Integer.parseInt(testLine.substring(templateLine.length()));
+            
+            testLine = theTest.nextLine();
+            templateLine = theKey.nextLine();
+            final boolean checkParticipants = 
+                            testLine.substring(0, templateLine.length()).equals(templateLine);
+            final int numPart = Integer.parseInt(testLine.substring(templateLine.length()));
+            
+            theRace.myHeader = 
+                            new RaceHeader(name, track, width, height, distance, time, numPart);
+            
+            valid = checkTrack && checkName && checkTime && checkWidth 
+                            && checkHeight && checkDistance && checkTime 
+                            && checkParticipants;
+
+        } catch (final NumberFormatException e) {
+            valid = false;
+        } catch (final NoSuchElementException e) {
+            valid = false;
+        }
+        return valid;
+    }
+    
+    @Override
+    public void advance() {
+        advance(1);
+    }
+
+    @Override
+    public void advance(final int theMillisecond) {
+        changeTime(myTime + theMillisecond, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Jumping forward more than one keyframe interval, or backwards, does not replay 
+     * the messages in between; seek listeners are told of the jump, and each racer's
+     * latest state is restored instead.
+     */
+    @Override
+    public void moveTo(final int theMillisecond) {
+        if (theMillisecond < 0) {
+            throw new IllegalArgumentException("ERROR_MESSAGE");
+        }
+        changeTime(theMillisecond, theMillisecond - myTime <= KEYFRAME_INTERVAL);
+    }
+    
+    /**
+     * Helper method to change the value of time and notify observers. 
+     * 
+     * @param theMillisecond the time to change to
+     * @param theReplay true to send every message passed when moving forward,
+     * false to only restore the race state at the new time
+     */
+    private void changeTime(final int theMillisecond, final boolean theReplay) {
+        final int old = myTime;
+        myTime = theMillisecond;
+        final int loadedTo = myLoaded.myLoadedTo;
+        // no race is held once a first streamed race is taken back
+        final int length = myHeader == null ? 0 : myHeader.getTime();
+        if (theMillisecond > loadedTo && loadedTo < length) {
+            // still streaming in, wait here for more messages
+            myTime = loadedTo;
+        } else if (theMillisecond > length) {
+            myTime = length;
+            myBus.fireComplete();
+        }
+        final boolean replay = old < myTime && theReplay;
+        if (old != myTime) {
+            if (!replay) {
+                myBus.fireSeek(myTime);
+            }
+            myBus.fireTime(myTime);
+        }
+        
+        if (replay) {
+            final int start = myMessages.firstIndexAt(old);
+            final int end = myMessages.firstIndexAt(myTime);
+            if (myBus.hasMessageListeners()) {
+                final int count = selectShown(start, end);
+                final Message[] messages = new Message[count];
+                for (int i = 0; i < count; i++) {
+                    messages[i] = myMessages.get(mySelected[i]);
+                }
+                sendMessages(messages, count);
+            }
+            if (myBus.hasConflatedListeners()) {
+                conflate(start, end);
+            }
+        } else if (old != myTime) {
+            restoreState();
+        }    
+    }
+    
+    /**
+     * Helper method which handles the model time jumping, forwards or backwards,
+     * and notifies observers. Instead of every message in between, only the race
+     * state at the new time gets fired: each racer's most recent telemetry message, 
+     * the line crossing of each racer who has finished, and the most recent leaderboard.
+     * A racer with no telemetry yet is sent back to its start distance, and before the
+     * first leaderboard the racers are sent in participant order, so jumping back to 
+     * the start resets every racer.
+     * The state comes from the nearest keyframe, so this takes no longer for far jumps.
+     */
+    private void restoreState() {
+        final KeyframeIndex keyframes = myLoaded.myKeyframes;
+        final int[] state = keyframes.stateAt(myMessages, myTime);
+        final Message[] messages = new Message[2 * keyframes.getRacerCount() + 1];
+        int count = 0;
+        for (int r = 0; r < keyframes.getRacerCount(); r++) {
+            final int telem = keyframes.telemetry(state, r);
+            if (myFilter.showsTelemetry(r)) {
+                if (telem == KeyframeIndex.NONE) {
+                    final Racer racer = myRacers.get(r);
+                    messages[count] = new TelemetryMessage(0, racer.getID(), 
+                                                           racer.getStartDistance(), 
+                                                           START_LAP);
+                } else {
+                    messages[count] = myMessages.get(telem);
+                }
+                count++;
+            }
+        }
+        for (int r = 0; r < keyframes.getRacerCount(); r++) {
+            final int crossing = keyframes.crossing(state, r);
+            if (crossing != KeyframeIndex.NONE && myMessages.isFinished(crossing)
+                && myFilter.isTypeOn(Message.CROSSING)) {
+                messages[count] = myMessages.get(crossing);
+                count++;
+            }
+        }
+        final int lead = keyframes.leaderboard(state);
+        if (myFilter.isTypeOn(Message.LEADERBOARD)) {
+            if (lead == KeyframeIndex.NONE) {
+                final int[] ids = new int[myRacers.size()];
+                final String[] order = new String[ids.length];
+                for (int r = 0; r < ids.length; r++) {
+                    ids[r] = myRacers.getID(r);
+                    order[r] = String.valueOf(ids[r]);
+                }
+                messages[count] = new LeaderboardMessage(0, ids, order);
+            } else {
+                messages[count] = myMessages.get(lead);
+            }
+            count++;
+        }
+        sendMessages(messages, count);
+        sendConflated(messages, count);
+    }
+    
+    /**
+     * Sends conflated listeners the messages of a range of stored 
+     * messages which show where the race stands at its end: the latest telemetry of 
+     * each toggled on racer, every line crossing and the latest leaderboard, in the 
+     * order they were stored. Each racer's latest telemetry comes from the telemetry 
+     * index, so only as many telemetry messages are built as there are racers.
+     * 
+     * @param theStart the index of the first message of the range
+     * @param theEnd the index after the last message of the range
+     */
+    private void conflate(final int theStart, final int theEnd) {
+        final KeyframeIndex keyframes = myLoaded.myKeyframes;
+        int[] rows = new int[keyframes.getRacerCount() + 1];
+        int count = 0;
+        int lead = KeyframeIndex.NONE;
+        for (int i = theStart; i < theEnd; i++) {
+            final int tag = myMessages.getTag(i);
+            if (tag == Message.LEADERBOARD && myFilter.isTypeOn(tag)) {
+                lead = i;
+            } else if (tag == Message.CROSSING && myFilter.isTypeOn(tag)) {
+                if (count == rows.length) {
+                    rows = Arrays.copyOf(rows, rows.length * 2);
+                }
+                rows[count] = i;
+                count++;
+            }
+        }
+        rows = Arrays.copyOf(rows, count + keyframes.getRacerCount() + 1);
+        if (lead != KeyframeIndex.NONE) {
+            rows[count] = lead;
+            count++;
+        }
+        for (int r = 0; r < keyframes.getRacerCount(); r++) {
+            if (myFilter.showsTelemetry(r)) {
+                final int telem = myLoaded.myTelemetry.latest(myMessages, r, myTime - 1);
+                if (telem >= theStart) {
+                    rows[count] = telem;
+                    count++;
+                }
+            }
+        }
+        Arrays.sort(rows, 0, count);
+        final Message[] messages = new Message[count];
+        for (int i = 0; i < count; i++) {
+            messages[i] = myMessages.get(rows[i]);
+        }
+        sendConflated(messages, count);
+    }
+    
+    /**
+     * Sends messages which are already conflated to conflated listeners as one batch.
+     * Nothing is sent when there are no messages.
+     * 
+     * @param theMessages an array holding the messages, not to be changed afterwards
+     * @param theCount the number of messages in the array
+     */
+    private void sendConflated(final Message[] theMessages, final int theCount) {
+        if (theCount > 0 && myBus.hasConflatedListeners()) {
+            myBus.fireConflated(new MessageBatch(theMessages, theCount));
+        }
+    }
+    
+    /**
+     * Sends new messages to message listeners as one batch. Nothing is sent when 
+     * there are no messages.
+     * 
+     * @param theMessages an array holding the messages, not to be changed afterwards
+     * @param theCount the number of messages in the array
+     */
+    private void sendMessages(final Message[] theMessages, final int theCount) {
+        if (theCount > 0 && myBus.hasMessageListeners()) {
+            myBus.fireMessages(new MessageBatch(theMessages, theCount));
+        }
+    }
+    
+    /**
+     * Finds the stored messages in a range which should be shown to the controller,
+     * into mySelected. Telemetry messages about toggled off racers, and messages of 
+     * toggled off types, should not be shown. No message is built to find out. When 
+     * few racers' telemetry is shown, only their telemetry is gathered, so toggled 
+     * off racers cost nothing.
+     * 
+     * @param theStart the index of the first message of the range
+     * @param theEnd the index after the last message of the range
+     * @return the number of messages to be shown
+     */
+    private int selectShown(final int theStart, final int theEnd) {
+        if (mySelected.length < theEnd - theStart) {
+            mySelected = new int[theEnd - theStart];
+        }
+        final int shown = myFilter.getShownRacers();
+        final int count;
+        if (shown * 2 < myFilter.getRacerCount()
+            && theEnd - theStart > shown * MESSAGES_PER_SHOWN_RACER) {
+            count = myLoaded.myTelemetry.select(myMessages, theStart, theEnd, 
+                                                myFilter, mySelected);
+        } else {
+            count = myMessages.select(theStart, theEnd, myFilter, mySelected);
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * A participant toggled back on is brought up to date right away: listeners are 
+     * sent the participant's latest telemetry before the current race time.
+     */
+    @Override
+    public void toggleParticipant(final int theParticpantID, final boolean theToggle) {
+        final int racer = myRacers.indexOf(theParticpantID);
+        if (racer != RacerRegistry.NONE && myFilter.setRacer(racer, theToggle) 
+            && theToggle && myTime > 0 && myFilter.isTypeOn(Message.TELEMETRY)) {
+            final TelemetryMessage telem = getTelemetryAt(theParticpantID, myTime - 1);
+            if (telem != null) {
+                final Message[] messages = {telem};
+                sendMessages(messages, 1);
+                sendConflated(messages, 1);
+            }
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * Messages hidden while their type was toggled off are not sent again.
+     */
+    @Override
+    public void toggleMessageType(final int theTag, final boolean theToggle) {
+        myFilter.setType(theTag, theToggle);
+    }
+
+    @Override
+    public void addPropertyChangeListener(final PropertyChangeListener theListener) {
+        myAdapter.listenFor(null);
+        myPcs.addPropertyChangeListener(theListener);
+    }
+
+    @Override
+    public void addPropertyChangeListener(final String thePropertyName,
+                                          final PropertyChangeListener theListener) {
+        myAdapter.listenFor(thePropertyName);
+        myPcs.addPropertyChangeListener(thePropertyName, theListener);
+    }
+
+    @Override
+    public void removePropertyChangeListener(final PropertyChangeListener theListener) {
+        myPcs.removePropertyChangeListener(theListener);
+    }
+
+    @Override
+    public void removePropertyChangeListener(final String thePropertyName,
+                                             final PropertyChangeListener theListener) {
+        myPcs.removePropertyChangeListener(thePropertyName, theListener);
+    }
+
+    /**
+     * Holds everything read from one race file until it replaces the model's race.
+     */
+    private static final class LoadedRace {
+        
+        /** The race header information. */
+        private RaceHeader myHeader;
+        
+        /** The race participants, by racer index. */
+        private RacerRegistry myRacers = new RacerRegistry();
+        
+        /** The race messages, sorted by time. */
+        private MessageStore myMessages = new MessageStore();
+        
+        /** Periodic race state snapshots, added as messages load. */
+        private KeyframeIndex myKeyframes = new KeyframeIndex(0, KEYFRAME_INTERVAL);
+        
+        /** Each racer's telemetry in time order, added as messages load. */
+        private TelemetryIndex myTelemetry = new TelemetryIndex(0, false);
+        
+        /** Every message stamped before this race time is in place. */
+        private volatile int myLoadedTo;
+    }
+
+}
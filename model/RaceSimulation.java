@@ -0,0 +1,555 @@
+package model;
+
+import java.awt.EventQueue;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This program runs a RaceModel on its own simulation thread and hands its events to
+ * the Swing event dispatch thread. Playback ticks, seeks, toggles and loaded races all
+ * run on the simulation thread, so a slow user interface never slows race time.
+ *
+ * Events are gathered into frames. Each piece of work on the simulation thread ends a
+ * frame, and at most one frame waits on the event dispatch thread at a time: until it
+ * runs, later frames are folded into it. Within a waiting frame only the latest race
+ * time is kept, every new message is kept for one batch, and conflated messages are
+ * merged so each racer's latest telemetry, every line crossing and the latest
+ * leaderboard remain. Other events are kept in the order they were sent.
+ *
+ * Listeners added here are called on the event dispatch thread. Control methods may be
+ * called from any thread; they run on the simulation thread in the order called.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public final class RaceSimulation implements PropertyChangeEnabledRaceControls {
+
+    /** The loading events passed on as they are. */
+    private static final String[] LOAD_PROPERTIES = {PROPERTY_SENDING_STRING,
+        PROPERTY_LOAD_PROGRESS, PROPERTY_LOAD_FAILED, PROPERTY_LOADED_TO};
+
+    /** The thread the model runs on. */
+    private final ScheduledExecutorService mySimulation;
+
+    /** The race model, only touched on the simulation thread. */
+    private final RaceModel myModel;
+
+    /** Real milliseconds between playback ticks. */
+    private final int myTickMillis;
+
+    /** Measures the race time owed to playback, only used on the simulation thread. */
+    private final PlaybackClock myClock;
+
+    /** The playback ticks while playing, otherwise null. */
+    private ScheduledFuture<?> myTicks;
+
+    /** Delivers events to typed listeners on the event dispatch thread. */
+    private final RaceEventBus myBus;
+
+    /** Manager for Property Change Listeners on the event dispatch thread. */
+    private final PropertyChangeSupport myPcs;
+
+    /** Passes events from the bus on to Property Change Listeners. */
+    private final PropertyChangeAdapter myAdapter;
+
+    /** Events of the waiting frame which are not folded together, in order. */
+    private List<Runnable> myPending;
+
+    /** Holds whether the race completed during the waiting frame. */
+    private boolean myComplete;
+
+    /** Holds whether the race time changed during the waiting frame. */
+    private boolean myTimeChanged;
+
+    /** The latest race time of the waiting frame. */
+    private int myTime;
+
+    /** Every new message of the waiting frame. */
+    private List<Message> myMessages;
+
+    /** The conflated messages of the waiting frame. */
+    private ConflatedMerge myConflated;
+
+    /** Holds whether a frame is waiting on the event dispatch thread. */
+    private boolean myPosted;
+
+    /**
+     * Constructs a RaceSimulation and starts its simulation thread, which plays
+     * the race in ticks of the given length.
+     *
+     * @param theTickMillis real milliseconds between playback ticks
+     */
+    public RaceSimulation(final int theTickMillis) {
+        mySimulation = Executors.newSingleThreadScheduledExecutor(task -> {
+            final Thread thread = new Thread(task, "Race simulation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        myModel = new RaceModel(task -> mySimulation.execute(() -> frame(task)));
+        myTickMillis = theTickMillis;
+        myClock = new PlaybackClock(System::nanoTime);
+        myBus = new RaceEventBus();
+        myPcs = new PropertyChangeSupport(this);
+        myAdapter = new PropertyChangeAdapter(myBus, myPcs);
+        myPending = new ArrayList<>();
+        myMessages = new ArrayList<>();
+        myConflated = new ConflatedMerge();
+        listenToModel();
+    }
+
+    /**
+     * Subscribes to every event of the model, on the simulation thread.
+     */
+    private void listenToModel() {
+        final RaceEventBus events = myModel.getEventBus();
+        events.addSeekListener(time -> send(() -> myBus.fireSeek(time)));
+        events.addTimeListener(this::timeChanged);
+        events.addHeaderListener(header -> send(() -> myBus.fireHeader(header)));
+        events.addRacersListener(this::racersLoaded);
+        events.addMessageListener(this::messagesSent);
+        events.addConflatedListener(this::conflatedSent);
+        events.addCompleteListener(this::raceCompleted);
+        final PropertyChangeListener loading = this::loadingChanged;
+        for (final String property : LOAD_PROPERTIES) {
+            myModel.addPropertyChangeListener(property, loading);
+        }
+    }
+
+    /**
+     * Sets whether background loads stream the race, as RaceModel.setStreamingLoading.
+     * Call before loading a race.
+     *
+     * @param theStreaming true to stream background loads, false otherwise
+     */
+    public void setStreamingLoading(final boolean theStreaming) {
+        myModel.setStreamingLoading(theStreaming);
+    }
+
+    /**
+     * Sets whether new messages are sent to Property Change Listeners one
+     * PROPERTY_NEW_MESSAGES event at a time, or as one PROPERTY_MESSAGE_BATCH event
+     * per frame. Batched delivery is off by default.
+     *
+     * @param theBatched true to send messages in batches, false to send them one by one
+     */
+    public void setBatchedDelivery(final boolean theBatched) {
+        myAdapter.setBatchedDelivery(theBatched);
+    }
+
+    /**
+     * Returns the bus this simulation sends events through on the event dispatch thread.
+     *
+     * @return the event bus of this simulation
+     */
+    public RaceEventBus getEventBus() {
+        return myBus;
+    }
+
+    /**
+     * Starts or stops playback. While playing, each tick advances the race by the real
+     * time since the last tick, as measured by the nanosecond clock, times the speed.
+     * Pausing plays the race time owed up to the pause. Call from one controlling 
+     * thread only.
+     *
+     * @param thePlaying true to play, false to pause
+     */
+    public void setPlaying(final boolean thePlaying) {
+        if (thePlaying && myTicks == null) {
+            execute(myClock::start);
+            myTicks = mySimulation.scheduleAtFixedRate(() -> frame(this::tick),
+                myTickMillis, myTickMillis, TimeUnit.MILLISECONDS);
+        } else if (!thePlaying && myTicks != null) {
+            myTicks.cancel(false);
+            myTicks = null;
+            execute(() -> {
+                myClock.stop();
+                tick();
+            });
+        }
+    }
+
+    /**
+     * Returns whether the race is playing.
+     *
+     * @return true if playing, false if paused
+     */
+    public boolean isPlaying() {
+        return myTicks != null;
+    }
+
+    /**
+     * Sets how many race milliseconds pass each real millisecond while playing,
+     * from 0.1 to 100. The new speed takes effect from the moment it is set.
+     *
+     * @param theSpeed race milliseconds per real millisecond
+     * @throws IllegalArgumentException if theSpeed is not from 0.1 to 100
+     */
+    public void setSpeed(final double theSpeed) {
+        PlaybackClock.checkSpeed(theSpeed);
+        execute(() -> myClock.setSpeed(theSpeed));
+    }
+
+    /**
+     * Advances the race by one frame: the race time one tick plays at the current
+     * speed, at least one millisecond. Meant for stepping while paused.
+     */
+    public void step() {
+        execute(() -> myModel.advance(myClock.frame(myTickMillis)));
+    }
+
+    /**
+     * Advances the race by the race time the clock owes.
+     */
+    private void tick() {
+        final int elapsed = myClock.elapsed();
+        if (elapsed > 0) {
+            myModel.advance(elapsed);
+        }
+    }
+
+    @Override
+    public void advance() {
+        advance(1);
+    }
+
+    @Override
+    public void advance(final int theMillisecond) {
+        execute(() -> myModel.advance(theMillisecond));
+    }
+
+    @Override
+    public void moveTo(final int theMillisecond) {
+        if (theMillisecond < 0) {
+            throw new IllegalArgumentException("ERROR_MESSAGE");
+        }
+        execute(() -> myModel.moveTo(theMillisecond));
+    }
+
+    @Override
+    public void toggleParticipant(final int theParticpantID, final boolean theToggle) {
+        execute(() -> myModel.toggleParticipant(theParticpantID, theToggle));
+    }
+
+    @Override
+    public void toggleMessageType(final int theTag, final boolean theToggle) {
+        MessageFilter.checkType(theTag);
+        execute(() -> myModel.toggleMessageType(theTag, theToggle));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The race is read on the simulation thread, and this waits for it.
+     */
+    @Override
+    public void loadRace(final File theRaceFile) throws IOException {
+        final Future<Void> load = mySimulation.submit(() -> {
+            try {
+                myModel.loadRace(theRaceFile);
+            } finally {
+                endFrame();
+            }
+            return null;
+        });
+        try {
+            load.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Loading cancelled.");
+        }
+    }
+
+    @Override
+    public Future<RaceHeader> loadRaceAsync(final File theRaceFile) {
+        return myModel.loadRaceAsync(theRaceFile);
+    }
+
+    @Override
+    public void addPropertyChangeListener(final PropertyChangeListener theListener) {
+        myAdapter.listenFor(null);
+        myPcs.addPropertyChangeListener(theListener);
+    }
+
+    @Override
+    public void addPropertyChangeListener(final String thePropertyName,
+                                          final PropertyChangeListener theListener) {
+        myAdapter.listenFor(thePropertyName);
+        myPcs.addPropertyChangeListener(thePropertyName, theListener);
+    }
+
+    @Override
+    public void removePropertyChangeListener(final PropertyChangeListener theListener) {
+        myPcs.removePropertyChangeListener(theListener);
+    }
+
+    @Override
+    public void removePropertyChangeListener(final String thePropertyName,
+                                             final PropertyChangeListener theListener) {
+        myPcs.removePropertyChangeListener(thePropertyName, theListener);
+    }
+
+    /**
+     * Runs work on the simulation thread as a frame of its own.
+     *
+     * @param theWork the work to run
+     */
+    private void execute(final Runnable theWork) {
+        mySimulation.execute(() -> frame(theWork));
+    }
+
+    /**
+     * Runs work on the simulation thread, then ends the frame.
+     *
+     * @param theWork the work to run
+     */
+    private void frame(final Runnable theWork) {
+        try {
+            theWork.run();
+        } finally {
+            endFrame();
+        }
+    }
+
+    /**
+     * Hands the frame to the event dispatch thread, unless a frame is already
+     * waiting there, in which case this frame has been folded into it.
+     */
+    private synchronized void endFrame() {
+        if (!myPosted) {
+            myPosted = true;
+            EventQueue.invokeLater(this::deliver);
+        }
+    }
+
+    /**
+     * Sends every event of the waiting frame to listeners, on the event dispatch thread.
+     */
+    private void deliver() {
+        final List<Runnable> events;
+        synchronized (this) {
+            foldInto(myPending);
+            events = myPending;
+            myPending = new ArrayList<>();
+            myPosted = false;
+        }
+        for (final Runnable event : events) {
+            event.run();
+        }
+    }
+
+    /**
+     * Adds an event which is not folded together to the waiting frame, after
+     * the events folded together so far.
+     *
+     * @param theEvent sends the event to listeners
+     */
+    private synchronized void send(final Runnable theEvent) {
+        foldInto(myPending);
+        myPending.add(theEvent);
+    }
+
+    /**
+     * Adds the events folded together so far to a list of events, and starts folding
+     * anew. Called holding the lock of this simulation.
+     *
+     * @param theEvents the list of events
+     */
+    private void foldInto(final List<Runnable> theEvents) {
+        if (myComplete) {
+            theEvents.add(myBus::fireComplete);
+            myComplete = false;
+        }
+        if (myTimeChanged) {
+            final int time = myTime;
+            theEvents.add(() -> myBus.fireTime(time));
+            myTimeChanged = false;
+        }
+        if (!myMessages.isEmpty()) {
+            final MessageBatch messages = new MessageBatch(
+                myMessages.toArray(new Message[0]), myMessages.size());
+            theEvents.add(() -> myBus.fireMessages(messages));
+            myMessages = new ArrayList<>();
+        }
+        if (!myConflated.isEmpty()) {
+            final MessageBatch conflated = myConflated.toBatch();
+            theEvents.add(() -> myBus.fireConflated(conflated));
+        }
+    }
+
+    /**
+     * Keeps the latest race time of the waiting frame.
+     *
+     * @param theTime the race time
+     */
+    private synchronized void timeChanged(final int theTime) {
+        myTime = theTime;
+        myTimeChanged = true;
+    }
+
+    /**
+     * Passes the racers of a newly loaded race on in order. Conflated messages of the
+     * old race are folded away first, since they are merged by the old racer indexes.
+     *
+     * @param theRacers the racers of the new race
+     */
+    private synchronized void racersLoaded(final RacerRegistry theRacers) {
+        send(() -> myBus.fireRacers(theRacers));
+        myConflated.setRacers(theRacers);
+    }
+
+    /**
+     * Keeps every new message of the waiting frame.
+     *
+     * @param theMessages the new messages
+     */
+    private synchronized void messagesSent(final MessageBatch theMessages) {
+        for (final Message m : theMessages) {
+            myMessages.add(m);
+        }
+    }
+
+    /**
+     * Merges conflated messages into those of the waiting frame.
+     *
+     * @param theMessages the conflated messages
+     */
+    private synchronized void conflatedSent(final MessageBatch theMessages) {
+        for (final Message m : theMessages) {
+            m.accept(myConflated);
+        }
+    }
+
+    /**
+     * Keeps that the race completed during the waiting frame.
+     */
+    private synchronized void raceCompleted() {
+        myComplete = true;
+    }
+
+    /**
+     * Passes a loading event on in order.
+     *
+     * @param theEvent the loading event
+     */
+    private void loadingChanged(final PropertyChangeEvent theEvent) {
+        send(() -> myPcs.firePropertyChange(theEvent.getPropertyName(),
+                                            theEvent.getOldValue(), theEvent.getNewValue()));
+    }
+
+    /**
+     * Merges conflated messages: the latest telemetry of each racer, every line
+     * crossing and the latest leaderboard are kept. Telemetry is kept by racer index,
+     * along with the order racers were first merged in, so merging a message neither
+     * boxes its racer ID nor allocates.
+     */
+    private static final class ConflatedMerge implements MessageVisitor {
+
+        /** The racers of the race, which give each racer ID its index. */
+        private RacerRegistry myRacers = new RacerRegistry();
+
+        /** The latest telemetry of each racer index, or null. */
+        private TelemetryMessage[] myTelemetry = new TelemetryMessage[0];
+
+        /** The racer indexes with telemetry, in the order they were first merged. */
+        private int[] myTouched = new int[0];
+
+        /** The number of racer indexes with telemetry. */
+        private int myTouchedCount;
+
+        /** Every line crossing, and any telemetry about a racer not in the race. */
+        private final List<Message> myCrossings = new ArrayList<>();
+
+        /** The latest leaderboard, or null. */
+        private LeaderboardMessage myLead;
+
+        /**
+         * Sets the racers of a new race. Must be called while nothing is merged.
+         *
+         * @param theRacers the racers of the new race
+         */
+        void setRacers(final RacerRegistry theRacers) {
+            myRacers = theRacers;
+            myTelemetry = new TelemetryMessage[theRacers.size()];
+            myTouched = new int[theRacers.size()];
+        }
+
+        @Override
+        public void visitTelemetry(final TelemetryMessage theMessage) {
+            final int racer = myRacers.indexOf(theMessage.getID());
+            if (racer == RacerRegistry.NONE) {
+                myCrossings.add(theMessage);
+            } else {
+                if (myTelemetry[racer] == null) {
+                    myTouched[myTouchedCount] = racer;
+                    myTouchedCount++;
+                }
+                myTelemetry[racer] = theMessage;
+            }
+        }
+
+        @Override
+        public void visitCrossing(final CrossingMessage theMessage) {
+            myCrossings.add(theMessage);
+        }
+
+        @Override
+        public void visitLeaderboard(final LeaderboardMessage theMessage) {
+            myLead = theMessage;
+        }
+
+        /**
+         * Returns whether no message has been merged.
+         *
+         * @return true if empty, false otherwise
+         */
+        boolean isEmpty() {
+            return myTouchedCount == 0 && myCrossings.isEmpty() && myLead == null;
+        }
+
+        /**
+         * Returns the merged messages in time order, and empties this merge.
+         *
+         * @return the merged messages
+         */
+        MessageBatch toBatch() {
+            final Message[] messages = new Message[myCrossings.size() + myTouchedCount + 1];
+            int count = 0;
+            for (final Message m : myCrossings) {
+                messages[count] = m;
+                count++;
+            }
+            if (myLead != null) {
+                messages[count] = myLead;
+                count++;
+            }
+            for (int i = 0; i < myTouchedCount; i++) {
+                messages[count] = myTelemetry[myTouched[i]];
+                myTelemetry[myTouched[i]] = null;
+                count++;
+            }
+            Arrays.sort(messages, 0, count, Comparator.comparingInt(Message::getTime));
+            myCrossings.clear();
+            myLead = null;
+            myTouchedCount = 0;
+            return new MessageBatch(messages, count);
+        }
+    }
+}
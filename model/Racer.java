@@ -1,5 +1,7 @@
 package model;
 
+import java.util.Objects;
+
 /**
  * This program represents a Racer in a race.
  * 
@@ -57,5 +59,33 @@ public final class Racer {
         return myStartDistance;
     }
     
+    /**
+     * Returns whether another object is a racer with the same id, name 
+     * and starting distance.
+     * 
+     * @param theOther the object to compare with
+     * @return true if theOther is an equal racer, false otherwise
+     */
+    @Override
+    public boolean equals(final Object theOther) {
+        boolean result = this == theOther;
+        if (!result && theOther instanceof Racer) {
+            final Racer other = (Racer) theOther;
+            result = myID == other.myID && myName.equals(other.myName)
+                     && Double.compare(myStartDistance, other.myStartDistance) == 0;
+        }
+        return result;
+    }
+    
+    /**
+     * Returns a hash code consistent with equals.
+     * 
+     * @return a hash code for this racer
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(myID, myName, myStartDistance);
+    }
+    
     
 }
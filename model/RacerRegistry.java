@@ -0,0 +1,165 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * This program holds the racers of a race and gives each one a dense index, in the
+ * order the racers were registered, so the model and views keep what they know about
+ * racers in arrays by racer index instead of maps. Racer IDs may be any int; an ID is
+ * found in constant time in an open addressing table, without boxing.
+ *
+ * A registry is built once per race by the thread loading it, and may then be read
+ * by any number of threads it was safely handed to.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public final class RacerRegistry {
+
+    /** The index of a racer ID that is not in a race. */
+    public static final int NONE = -1;
+
+    /** The most racers a race may have, since messages store racer indexes in 16 bits. */
+    public static final int MAX_RACERS = Short.MAX_VALUE;
+
+    /** The smallest table, a power of two. */
+    private static final int MIN_TABLE = 16;
+
+    /** Spreads racer IDs across the table, the golden ratio in 32 bits. */
+    private static final int SPREAD = 0x9E3779B9;
+
+    /** The racer ID of each index. */
+    private int[] myIDs;
+
+    /** The racer of each index. */
+    private Racer[] myRacers;
+
+    /** Each slot holds the index of the racer ID hashed there plus one, 0 when empty. */
+    private int[] myTable;
+
+    /** The number of racers. */
+    private int mySize;
+
+    /**
+     * Constructs an empty registry.
+     */
+    public RacerRegistry() {
+        myIDs = new int[MIN_TABLE / 2];
+        myRacers = new Racer[MIN_TABLE / 2];
+        myTable = new int[MIN_TABLE];
+    }
+
+    /**
+     * Registers a racer, which is given the next index.
+     *
+     * @param theRacer the racer
+     * @return the racer's index, or NONE if a racer with the same ID was already
+     * registered or there are already MAX_RACERS racers
+     */
+    public int register(final Racer theRacer) {
+        final int id = theRacer.getID();
+        int index = NONE;
+        if (indexOf(id) == NONE && mySize < MAX_RACERS) {
+            if (mySize == myIDs.length) {
+                grow();
+            }
+            index = mySize;
+            myIDs[index] = id;
+            myRacers[index] = theRacer;
+            mySize++;
+            myTable[emptySlot(id)] = index + 1;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of a racer ID.
+     *
+     * @param theID the racer ID
+     * @return the racer's index, or NONE if no racer has the ID
+     */
+    public int indexOf(final int theID) {
+        final int mask = myTable.length - 1;
+        int slot = (theID * SPREAD) >>> Integer.numberOfLeadingZeros(mask);
+        int index = NONE;
+        while (index == NONE && myTable[slot] != 0) {
+            if (myIDs[myTable[slot] - 1] == theID) {
+                index = myTable[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the racer ID of an index.
+     *
+     * @param theIndex the racer's index
+     * @return the racer ID
+     * @throws IndexOutOfBoundsException if there is no such index
+     */
+    public int getID(final int theIndex) {
+        checkIndex(theIndex);
+        return myIDs[theIndex];
+    }
+
+    /**
+     * Returns the racer of an index.
+     *
+     * @param theIndex the racer's index
+     * @return the racer
+     * @throws IndexOutOfBoundsException if there is no such index
+     */
+    public Racer get(final int theIndex) {
+        checkIndex(theIndex);
+        return myRacers[theIndex];
+    }
+
+    /**
+     * Returns the number of racers.
+     *
+     * @return the number of racers
+     */
+    public int size() {
+        return mySize;
+    }
+
+    /**
+     * Checks that there is a racer of an index.
+     *
+     * @param theIndex the racer's index
+     * @throws IndexOutOfBoundsException if there is no such index
+     */
+    private void checkIndex(final int theIndex) {
+        if (theIndex < 0 || theIndex >= mySize) {
+            throw new IndexOutOfBoundsException("No racer index " + theIndex);
+        }
+    }
+
+    /**
+     * Returns the first empty slot for a racer ID.
+     *
+     * @param theID the racer ID
+     * @return the slot
+     */
+    private int emptySlot(final int theID) {
+        final int mask = myTable.length - 1;
+        int slot = (theID * SPREAD) >>> Integer.numberOfLeadingZeros(mask);
+        while (myTable[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the room for racers, keeping the table at most half full.
+     */
+    private void grow() {
+        myIDs = Arrays.copyOf(myIDs, myIDs.length * 2);
+        myRacers = Arrays.copyOf(myRacers, myRacers.length * 2);
+        myTable = new int[myTable.length * 2];
+        for (int i = 0; i < mySize; i++) {
+            myTable[emptySlot(myIDs[i])] = i + 1;
+        }
+    }
+}
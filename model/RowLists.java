@@ -0,0 +1,41 @@
+package model;
+
+/**
+ * This program holds lists of MessageStore row indexes, each only ever added to at its
+ * end, for indexes which keep rows in some other order than the store. Lists may live on
+ * the heap or off it, the same as the rows they index.
+ *
+ * Lists are added to by one loading thread. A reader holds a snapshot, which reads every
+ * entry added before it was taken however the lists grow afterwards.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+abstract class RowLists {
+
+    /**
+     * Returns an entry of a list.
+     *
+     * @param theList the list
+     * @param theIndex the position of the entry in the list
+     * @return the row index held there
+     */
+    abstract int get(int theList, int theIndex);
+
+    /**
+     * Adds an entry to the end of a list, making room for it as needed.
+     *
+     * @param theList the list
+     * @param theIndex the position of the new entry, which must be the list's size so far
+     * @param theRow the row index to add
+     */
+    abstract void add(int theList, int theIndex, int theRow);
+
+    /**
+     * Returns lists reading every entry added so far, for a reader to hold while more
+     * entries are added.
+     *
+     * @return a snapshot of these lists
+     */
+    abstract RowLists snapshot();
+}
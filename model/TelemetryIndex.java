@@ -0,0 +1,196 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * This program indexes the telemetry of every racer on its own. For each racer it keeps
+ * the MessageStore rows of that racer's telemetry in time order, so the racer's latest
+ * telemetry at or before any race time is found with one binary search. The rows of every
+ * other message are kept together, so the messages of a stretch of rows can be gathered
+ * from the racers that are shown alone, skipping hidden racers' telemetry wholesale. The
+ * rows already hold each message's time stamp, distance and lap, so only row indexes are
+ * kept here, in RowLists kept off the heap whenever the store's rows are.
+ *
+ * Rows are added by the loading thread as messages are loaded, and read on the model
+ * thread, which sees them once a snapshot is published.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+final class TelemetryIndex {
+
+    /** Row index returned when a racer has no telemetry yet. */
+    static final int NONE = -1;
+
+    /**
+     * The telemetry rows of each racer, in time order, one list per racer index, followed
+     * by the list of rows of every message which is not telemetry of a racer, in order.
+     */
+    private final RowLists myRows;
+
+    /** The number of rows in each list. */
+    private final int[] myCounts;
+
+    /** The rows and counts readers may see. */
+    private volatile Snapshot mySnapshot;
+
+    /** The number of messages scanned. */
+    private int myScanned;
+
+    /**
+     * Constructs an empty TelemetryIndex.
+     *
+     * @param theRacers the number of racers
+     * @param theOffHeap true to keep the index in mapped scratch files, off the heap
+     */
+    TelemetryIndex(final int theRacers, final boolean theOffHeap) {
+        if (theOffHeap) {
+            myRows = new MappedRowLists(theRacers + 1);
+        } else {
+            myRows = new HeapRowLists(theRacers + 1);
+        }
+        myCounts = new int[theRacers + 1];
+        mySnapshot = new Snapshot(myRows, myCounts);
+    }
+
+    /**
+     * Indexes telemetry up to a race time before which every message is stored and
+     * published, and will not move. Called on the loading thread only.
+     *
+     * @param theStore the store the messages are in
+     * @param theLoadedTo the race time before which every message is loaded
+     */
+    void extend(final MessageStore theStore, final int theLoadedTo) {
+        final int size = theStore.size();
+        final int other = myCounts.length - 1;
+        while (myScanned < size && theStore.getTime(myScanned) < theLoadedTo) {
+            int list = theStore.getRacer(myScanned);
+            if (list < 0 || theStore.getTag(myScanned) != Message.TELEMETRY) {
+                list = other;
+            }
+            myRows.add(list, myCounts[list], myScanned);
+            myCounts[list]++;
+            myScanned++;
+        }
+        mySnapshot = new Snapshot(myRows, myCounts);
+    }
+
+    /**
+     * Returns the row of a racer's latest telemetry stamped at or before a race time.
+     *
+     * @param theStore the store the messages are in
+     * @param theRacer the racer index
+     * @param theTime the race time
+     * @return the row index, or NONE if the racer has no telemetry by then
+     */
+    int latest(final MessageStore theStore, final int theRacer, final int theTime) {
+        final Snapshot snapshot = mySnapshot;
+        final RowLists rows = snapshot.myRows;
+        int low = 0;
+        int high = snapshot.myCounts[theRacer];
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (theStore.getTime(rows.get(theRacer, middle)) <= theTime) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low == 0 ? NONE : rows.get(theRacer, low - 1);
+    }
+
+    /**
+     * Finds the indexed messages in a range of rows which a filter shows. Only the
+     * telemetry of racers the filter shows is looked at, so this takes time for the
+     * shown messages rather than for the whole range.
+     *
+     * @param theStore the store the messages are in
+     * @param theStart the first row of the range
+     * @param theEnd the row after the last row of the range, which must be indexed
+     * @param theFilter the filter
+     * @param theRows gets the shown rows, in order, and must have room for the
+     * whole range
+     * @return the number of shown rows
+     */
+    int select(final MessageStore theStore, final int theStart, final int theEnd,
+               final MessageFilter theFilter, final int[] theRows) {
+        final Snapshot snapshot = mySnapshot;
+        final int other = snapshot.myCounts.length - 1;
+        int count = 0;
+        if (theFilter.isTypeOn(Message.TELEMETRY)) {
+            for (int r = 0; r < other; r++) {
+                if (theFilter.isRacerOn(r)) {
+                    count = copyRange(snapshot, r, theStart, theEnd, theRows, count);
+                }
+            }
+        }
+        final int racerRows = count;
+        count = copyRange(snapshot, other, theStart, theEnd, theRows, count);
+        int kept = racerRows;
+        for (int i = racerRows; i < count; i++) {
+            if (theFilter.accepts(theStore, theRows[i])) {
+                theRows[kept] = theRows[i];
+                kept++;
+            }
+        }
+        Arrays.sort(theRows, 0, kept);
+        return kept;
+    }
+
+    /**
+     * Copies the rows of a sorted list which fall in a range.
+     *
+     * @param theSnapshot the lists and their sizes
+     * @param theList the list
+     * @param theStart the first row of the range
+     * @param theEnd the row after the last row of the range
+     * @param theRows the array copied into
+     * @param theCount the number of rows already in theRows
+     * @return the number of rows in theRows after copying
+     */
+    private static int copyRange(final Snapshot theSnapshot, final int theList,
+                                 final int theStart, final int theEnd, final int[] theRows,
+                                 final int theCount) {
+        final RowLists list = theSnapshot.myRows;
+        final int size = theSnapshot.myCounts[theList];
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (list.get(theList, middle) < theStart) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int count = theCount;
+        for (int i = low; i < size && list.get(theList, i) < theEnd; i++) {
+            theRows[count] = list.get(theList, i);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * The per racer rows and the other rows, with their counts, as of one extend.
+     */
+    private static final class Snapshot {
+
+        /** The telemetry rows of each racer, then the rows of every other message. */
+        private final RowLists myRows;
+
+        /** The number of published rows of each list. */
+        private final int[] myCounts;
+
+        /**
+         * Constructs a snapshot of the given rows and counts.
+         *
+         * @param theRows the rows of each list
+         * @param theCounts the number of rows of each list
+         */
+        Snapshot(final RowLists theRows, final int[] theCounts) {
+            myRows = theRows.snapshot();
+            myCounts = theCounts.clone();
+        }
+    }
+}
@@ -83,4 +83,24 @@ public final class TelemetryMessage extends AbstractMessage {
         sb.append(this.getLap());
         return sb.toString();
     }
+    
+    /**
+     * Returns the type tag of this message.
+     * 
+     * @return the type tag for this message
+     */
+    @Override
+    public int getTag() {
+        return Message.TELEMETRY;
+    }
+    
+    /**
+     * Calls the method of a visitor which handles this type of message.
+     * 
+     * @param theVisitor the visitor to handle this message
+     */
+    @Override
+    public void accept(final MessageVisitor theVisitor) {
+        theVisitor.visitTelemetry(this);
+    }
 }
@@ -0,0 +1,182 @@
+package tests;
+
+import static model.PropertyChangeEnabledRaceControls.PROPERTY_NEW_MESSAGES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import model.LeaderboardMessage;
+import model.Message;
+import model.RaceModel;
+import model.TelemetryMessage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that jumping a RaceModel in time sends every racer's state at the new time.
+ * Like the program, it must be run from the folder holding race_files/TEMPLATE.rce.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public class RaceModelSeekTest {
+
+    /** The number of racers in the test race. */
+    private static final int RACERS = 10;
+
+    /** The length of the test race, in milliseconds. */
+    private static final int RACE_TIME = 600000;
+
+    /** Race milliseconds between samples of the test race. */
+    private static final int SAMPLE_MILLIS = 1000;
+
+    /** The distance of one lap. */
+    private static final int LAP_DISTANCE = 1600;
+
+    /** Tolerance when comparing distances. */
+    private static final double TOLERANCE = 1e-9;
+
+    /** The test race file. */
+    private File myFile;
+
+    /** The model under test. */
+    private RaceModel myModel;
+
+    /** The messages the model sent since the last clear. */
+    private List<Message> mySent;
+
+    /**
+     * Writes a test race file and loads it.
+     *
+     * @throws IOException if the race file can not be written or loaded
+     */
+    @Before
+    public void setUp() throws IOException {
+        myFile = File.createTempFile("seek", ".rce");
+        try (PrintWriter out = new PrintWriter(myFile, "US-ASCII")) {
+            out.print("#RACE:Seek Test\n#TRACK:OVAL\n#WIDTH:5\n#HEIGHT:2\n");
+            out.print("#DISTANCE:" + LAP_DISTANCE + "\n#TIME:" + RACE_TIME + "\n");
+            out.print("#PARTICIPANTS:" + RACERS + "\n");
+            for (int id = 1; id <= RACERS; id++) {
+                out.print("#" + id + ":Racer " + id + ":" + startDistance(id) + "\n");
+            }
+            for (int time = 0; time < RACE_TIME; time += SAMPLE_MILLIS) {
+                final StringBuilder order = new StringBuilder("$L:" + time);
+                for (int id = 1; id <= RACERS; id++) {
+                    final double run = startDistance(id) + (double) time / id / 100;
+                    out.print(String.format(Locale.ROOT, "$T:%d:%d:%.2f:%d\n", time, id,
+                                            run % LAP_DISTANCE, 1 + (int) (run / LAP_DISTANCE)));
+                    order.append(':').append(RACERS + 1 - id);
+                }
+                out.print(order + "\n");
+            }
+        }
+        myModel = new RaceModel(Runnable::run);
+        myModel.loadRace(myFile);
+        mySent = new ArrayList<>();
+        myModel.addPropertyChangeListener(PROPERTY_NEW_MESSAGES, 
+            theEvent -> mySent.add((Message) theEvent.getNewValue()));
+    }
+
+    /**
+     * Deletes the test race file.
+     */
+    @After
+    public void tearDown() {
+        myFile.delete();
+    }
+
+    /**
+     * Returns the start distance of a test racer.
+     *
+     * @param theID the racer ID
+     * @return the racer's start distance
+     */
+    private static double startDistance(final int theID) {
+        return theID * 2.5;
+    }
+
+    /**
+     * Returns the telemetry sent for each racer, by racer ID.
+     *
+     * @return the latest telemetry sent for each racer ID, null where none was sent
+     */
+    private TelemetryMessage[] sentTelemetry() {
+        final TelemetryMessage[] telemetry = new TelemetryMessage[RACERS + 1];
+        for (final Message m : mySent) {
+            if (m instanceof TelemetryMessage) {
+                telemetry[((TelemetryMessage) m).getID()] = (TelemetryMessage) m;
+            }
+        }
+        return telemetry;
+    }
+
+    /**
+     * Returns the latest leaderboard sent.
+     *
+     * @return the latest leaderboard sent, or null if none was
+     */
+    private LeaderboardMessage sentLeaderboard() {
+        LeaderboardMessage leaderboard = null;
+        for (final Message m : mySent) {
+            if (m instanceof LeaderboardMessage) {
+                leaderboard = (LeaderboardMessage) m;
+            }
+        }
+        return leaderboard;
+    }
+
+    /**
+     * Tests that Restart, a jump back to 0 from late in the race, sends every racer 
+     * back to its start distance and the racers back to participant order.
+     */
+    @Test
+    public void testMoveToStartResetsEveryRacer() {
+        myModel.moveTo(RACE_TIME - SAMPLE_MILLIS / 2);
+        mySent.clear();
+        myModel.moveTo(0);
+        final TelemetryMessage[] telemetry = sentTelemetry();
+        for (int id = 1; id <= RACERS; id++) {
+            assertNotNull("no telemetry for racer " + id, telemetry[id]);
+            assertEquals("racer " + id + " distance", startDistance(id),
+                         telemetry[id].getDist(), TOLERANCE);
+            assertEquals("racer " + id + " lap", 1, telemetry[id].getLap());
+        }
+        final LeaderboardMessage leaderboard = sentLeaderboard();
+        assertNotNull("no leaderboard", leaderboard);
+        assertEquals("leaderboard size", RACERS, leaderboard.getOrderSize());
+        for (int i = 0; i < RACERS; i++) {
+            assertEquals("leaderboard position " + i, String.valueOf(i + 1),
+                         leaderboard.getOrderID(i));
+        }
+    }
+
+    /**
+     * Tests that a jump back to the middle of the race sends every racer's latest
+     * sample before the new time, and the latest leaderboard.
+     */
+    @Test
+    public void testMoveBackRestoresLatestSamples() {
+        final int target = RACE_TIME / 2 + SAMPLE_MILLIS / 2;
+        myModel.moveTo(RACE_TIME - SAMPLE_MILLIS / 2);
+        mySent.clear();
+        myModel.moveTo(target);
+        final TelemetryMessage[] telemetry = sentTelemetry();
+        for (int id = 1; id <= RACERS; id++) {
+            assertNotNull("no telemetry for racer " + id, telemetry[id]);
+            assertEquals("racer " + id + " sample time", RACE_TIME / 2,
+                         telemetry[id].getTime());
+        }
+        final LeaderboardMessage leaderboard = sentLeaderboard();
+        assertNotNull("no leaderboard", leaderboard);
+        assertTrue("leaderboard time", leaderboard.getTime() < target);
+        assertEquals("leader", String.valueOf(RACERS), leaderboard.getOrderID(0));
+    }
+}
@@ -0,0 +1,218 @@
+package view;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Insets;
+import javax.swing.AbstractListModel;
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JButton;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
+import javax.swing.ScrollPaneConstants;
+import javax.swing.SwingConstants;
+import javax.swing.border.Border;
+import javax.swing.border.EmptyBorder;
+import model.LeaderboardMessage;
+import model.Racer;
+import model.RacerRegistry;
+
+/**
+ * This program builds a leaderboard panel which shows racers in race order.
+ * The board is a scrolling list which only paints the rows that are visible, so it
+ * shows races of any size. A new order only changes the rows whose racer moved, and
+ * racers are found by index in arrays, so an update makes no new objects.
+ *
+ * @author Conner Canning
+ * @version 17 October 2026
+ */
+public final class Leaderboard extends JPanel {
+
+    /** A generated serial version UID for object Serialization. */
+    private static final long serialVersionUID = -3127645512358410927L;
+
+    /** The number of racer rows visible at once. */
+    private static final int VISIBLE_ROWS = 10;
+
+    /** Padding for the border around leaderboard panel. */
+    private static final Insets LEAD_BORDER = new Insets(0, 0, 0, 1);
+
+    /** Text representing the title of the leaderboard. */
+    private static final String LEAD_TEXT = " Leaderboard Here:  ";
+
+    /** The racers in race order. */
+    private final RaceOrder myOrder;
+
+    /** The racers of the race, by racer index. */
+    private RacerRegistry myRacers;
+
+    /** The racers' colors by racer index. */
+    private Color[] myColors;
+
+    /**
+     * Constructs an empty leaderboard.
+     */
+    public Leaderboard() {
+        super(new BorderLayout());
+        setBorder(new EmptyBorder(LEAD_BORDER));
+        myRacers = new RacerRegistry();
+        myColors = new Color[0];
+        myOrder = new RaceOrder();
+
+        final JButton title = new JButton(LEAD_TEXT);
+        title.setEnabled(false);
+        final JList<Racer> rows = new JList<>(myOrder);
+        rows.setCellRenderer(new RowRenderer());
+        rows.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        // fixed row sizes, so rows are never measured one by one
+        rows.setFixedCellWidth(title.getPreferredSize().width);
+        rows.setFixedCellHeight(title.getPreferredSize().height);
+        rows.setVisibleRowCount(VISIBLE_ROWS);
+        final JScrollPane scroll = new JScrollPane(rows);
+        scroll.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        add(title, BorderLayout.NORTH);
+        add(scroll, BorderLayout.CENTER);
+    }
+
+    /**
+     * Shows the racers of a new race in racer index order.
+     *
+     * @param theRacers the racers of the race
+     * @param theColors the racers' colors by racer index, shared with the race track
+     */
+    public void setRacers(final RacerRegistry theRacers, final Color[] theColors) {
+        myRacers = theRacers;
+        myColors = theColors;
+        final int[] order = new int[myRacers.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        myOrder.reset(order);
+    }
+
+    /**
+     * Shows the racers in a leaderboard message's order. Only rows whose racer
+     * changed are repainted.
+     *
+     * @param theMessage the leaderboard message
+     */
+    public void showOrder(final LeaderboardMessage theMessage) {
+        myOrder.update(theMessage);
+    }
+
+    /**
+     * Holds the racer index in each row of the board, first to last.
+     */
+    private final class RaceOrder extends AbstractListModel<Racer> {
+
+        /** A generated serial version UID for object Serialization. */
+        private static final long serialVersionUID = 5046934218815129072L;
+
+        /** The racer index in each row. */
+        private int[] myRows = new int[0];
+
+        @Override
+        public int getSize() {
+            return myRows.length;
+        }
+
+        @Override
+        public Racer getElementAt(final int theIndex) {
+            return myRacers.get(myRows[theIndex]);
+        }
+
+        /**
+         * Returns the color of the racer in a row.
+         *
+         * @param theIndex the row
+         * @return the racer's color
+         */
+        private Color getColorAt(final int theIndex) {
+            return myColors[myRows[theIndex]];
+        }
+
+        /**
+         * Replaces every row.
+         *
+         * @param theRows the racer index in each row
+         */
+        private void reset(final int[] theRows) {
+            final int oldSize = myRows.length;
+            myRows = new int[0];
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+            myRows = theRows;
+            if (myRows.length > 0) {
+                fireIntervalAdded(this, 0, myRows.length - 1);
+            }
+        }
+
+        /**
+         * Puts the rows in a leaderboard message's order and tells the list once
+         * about the stretch of rows that changed.
+         *
+         * @param theMessage the leaderboard message
+         */
+        private void update(final LeaderboardMessage theMessage) {
+            final int size = theMessage.getOrderSize();
+            int first = -1;
+            int last = -1;
+            int row = 0;
+            for (int i = 0; i < size && row < myRows.length; i++) {
+                final int racer = myRacers.indexOf(theMessage.getOrderRacerID(i));
+                if (racer != RacerRegistry.NONE) {
+                    if (myRows[row] != racer) {
+                        myRows[row] = racer;
+                        if (first < 0) {
+                            first = row;
+                        }
+                        last = row;
+                    }
+                    row++;
+                }
+            }
+            if (first >= 0) {
+                fireContentsChanged(this, first, last);
+            }
+        }
+    }
+
+    /**
+     * Paints a row of the board as the racer's name on the racer's color.
+     */
+    private final class RowRenderer extends DefaultListCellRenderer {
+
+        /** A generated serial version UID for object Serialization. */
+        private static final long serialVersionUID = -1583276006428716358L;
+
+        /** The raised edge around every row, so rows look like the title. */
+        private final Border myEdge = BorderFactory.createRaisedBevelBorder();
+
+        /**
+         * Constructs a renderer of centered names.
+         */
+        private RowRenderer() {
+            super();
+            setHorizontalAlignment(SwingConstants.CENTER);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(final JList<?> theList,
+                                                      final Object theValue,
+                                                      final int theIndex,
+                                                      final boolean theSelected,
+                                                      final boolean theFocused) {
+            super.getListCellRendererComponent(theList, ((Racer) theValue).getName(),
+                                               theIndex, theSelected, theFocused);
+            if (!theSelected) {
+                setBackground(myOrder.getColorAt(theIndex));
+            }
+            setBorder(myEdge);
+            return this;
+        }
+    }
+}
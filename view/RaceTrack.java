@@ -1,35 +1,51 @@
 package view;
 
-import static model.PropertyChangeEnabledRaceControls.PROPERTY_HEADER_INFO;
-import static model.PropertyChangeEnabledRaceControls.PROPERTY_NEW_MESSAGES;
-
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.Transparency;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Point2D;
-import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
-import java.util.HashMap;
-import java.util.Map;
+import java.awt.image.BufferedImage;
 import javax.swing.BorderFactory;
 import javax.swing.JPanel;
+import javax.swing.Timer;
+import model.CrossingMessage;
+import model.LeaderboardMessage;
 import model.Message;
+import model.MessageBatch;
+import model.MessageVisitor;
+import model.RaceEventBus;
 import model.RaceHeader;
-import model.Racer;
+import model.RacerRegistry;
 import model.TelemetryMessage;
 import track.VisibleRaceTrack;
 
 /**
  * This program builds a race track panel to display a race.
+ * Telemetry only records racers' latest samples and marks them dirty; at most 60 times
+ * a second the regions around dirty racers' old and new positions are repainted, so the
+ * painting done does not grow with the message rate. Between samples, each racer's
+ * distance at the model time is extrapolated from its last two samples, for at most
+ * one sample interval, so racers move smoothly even when telemetry is sparse. A seek
+ * reported by the model starts every racer's history over, since the samples on
+ * either side of it are not neighbors. Racers are placed from a table of track points
+ * made once for each race, between which positions are interpolated. The track is
+ * drawn once into an image for each race and panel size, and racers are drawn from
+ * one pre-rendered circle image per racer, so a frame only copies images.
  * 
  * @author Conner Canning
- * @version 16 March 2019
+ * @version 17 October 2026
  */
-public final class RaceTrack extends JPanel implements PropertyChangeListener {
+public final class RaceTrack extends JPanel implements RaceEventBus.HeaderListener, 
+                RaceEventBus.MessageListener, RaceEventBus.TimeListener,
+                RaceEventBus.SeekListener {
     
     /** A generated serial version UID for object Serialization. */
     private static final long serialVersionUID = 8385732728740430466L;
@@ -46,30 +62,108 @@ public final class RaceTrack extends JPanel implements PropertyChangeListener {
     /** The size of participants moving around the track. */
     private static final int OVAL_SIZE = 20;
 
-    /** Links racers with colors for consistent color on scoreboard and race track panel. */
-    private final Map<Racer, Color> myRacerColorMap;
+    /** The stroke the track is drawn with. */
+    private static final BasicStroke TRACK_STROKE = new BasicStroke(STROKE_WIDTH);
+
+    /** The size of a racer's circle image, with a pixel to spare on each side. */
+    private static final int SPRITE_SIZE = OVAL_SIZE + 2;
+
+    /** Track points in the table per pixel around the track's bounds. */
+    private static final int POINTS_PER_PIXEL = 2;
+
+    /** The milliseconds between frames, for at most 60 frames a second. */
+    private static final int FRAME_MILLIS = 1000 / 60;
+
+    /** The sample time of a racer without that sample. */
+    private static final int NO_SAMPLE = -1;
+
+    /** The racers of the race, by racer index. */
+    private RacerRegistry myRacers;
+
+    /** The racers' colors by racer index, shared with the leaderboard. */
+    private Color[] myColors;
+
+    /** The slot of each racer on the track, by racer index. */
+    private RacerSlot[] mySlots;
+
+    /** The racer indexes of the slots moved since the last frame. */
+    private int[] myDirtySlots;
 
-    /** Links racers to their circles which go around the race track. */
-    private final Map<Racer, Ellipse2D> myRacerCircleMap;
+    /** The number of slots moved since the last frame. */
+    private int myDirtyCount;
+
+    /** The race time of each racer's latest telemetry by racer index, or NO_SAMPLE. */
+    private int[] myLastTimes;
+
+    /** The distance, laps included, of each racer's latest telemetry, or start. */
+    private double[] myLastDistances;
+
+    /** The race time of each racer's telemetry before the latest, or NO_SAMPLE. */
+    private int[] myPriorTimes;
+
+    /** The distance, laps included, of each racer's telemetry before the latest. */
+    private double[] myPriorDistances;
+
+    /** The model race time racers are placed at. */
+    private int myTime;
+
+    /** The circle image of each racer by racer index, drawn when first painted. */
+    private Image[] mySprites;
+
+    /** Repaints the dirty slots once a frame while racers move. */
+    private final Timer myFrameTimer;
     
     /** The visible track. */
     private VisibleRaceTrack myTrack;   
+
+    /** The background and track drawn for the current race and size, or null. */
+    private Image myTrackLayer;
+
+    /** The x coordinates of the track at evenly spaced distances around one lap. */
+    private double[] myPointsX;
+
+    /** The y coordinates of the track at evenly spaced distances around one lap. */
+    private double[] myPointsY;
+
+    /** The distance of one lap. */
+    private double myLapDistance;
+    
+    /** Records racers' samples for the messages it visits. */
+    private final MessageVisitor myMover;
     
     /**
      * Constructs a new RaceTrack to display a model race.
-     * 
-     * @param theRacerColorMap a map which links racers to colors for 
-     * consistency across the JPanels in the race view window
      */
-    public RaceTrack(final Map<Racer, Color> theRacerColorMap) {
+    public RaceTrack() {
         super();
         this.setBorder(BorderFactory.createTitledBorder("Race Track"));
         this.setPreferredSize(PANEL_SIZE);
-        myRacerColorMap = theRacerColorMap;
-        myRacerCircleMap = new HashMap<>();
+        myRacers = new RacerRegistry();
+        myColors = new Color[0];
+        mySlots = new RacerSlot[0];
+        myDirtySlots = new int[0];
+        myLastTimes = new int[0];
+        myLastDistances = new double[0];
+        myPriorTimes = new int[0];
+        myPriorDistances = new double[0];
+        mySprites = new Image[0];
+        myFrameTimer = new Timer(FRAME_MILLIS, theEvent -> repaintDirtySlots());
+        myFrameTimer.setRepeats(false);
+        myMover = new RacerMover();
     }
     
     
+    /**
+     * Sets the racers of the next race, which are placed when its header is loaded.
+     * 
+     * @param theRacers the racers of the race
+     * @param theColors the racers' colors by racer index, shared with the leaderboard
+     */
+    public void setRacers(final RacerRegistry theRacers, final Color[] theColors) {
+        myRacers = theRacers;
+        myColors = theColors;
+    }
+    
     /**
      * Sets up the race track given race header information. 
      * 
@@ -83,86 +177,370 @@ public final class RaceTrack extends JPanel implements PropertyChangeListener {
         final int y = (int) PANEL_SIZE.getHeight()  / 2 - height / 2;
 
         myTrack = new VisibleRaceTrack(x, y, width, height, (int) theHeader.getDistance());
+        myTrackLayer = null;
+        tabulateTrack(POINTS_PER_PIXEL * 2 * (width + height), theHeader.getDistance());
         revalidate();
     }
-    
+
     /**
-     * Sets up the racer circles in their starting positions.
+     * Makes the table of track points for one lap. Neighboring points are closer
+     * than a pixel, so interpolating between them stays within a pixel of the track.
+     *
+     * @param theSteps the number of steps the lap is divided into
+     * @param theLapDistance the distance of one lap
      */
-    private void racerStartingPositions() {
-        myRacerCircleMap.clear();   // clear previous race loads
-        for (final Racer r : myRacerColorMap.keySet()) {
-            myRacerCircleMap.put(r, makeCircle(r.getStartDistance()));
+    private void tabulateTrack(final int theSteps, final double theLapDistance) {
+        myLapDistance = theLapDistance;
+        myPointsX = new double[theSteps + 1];
+        myPointsY = new double[theSteps + 1];
+        for (int i = 0; i <= theSteps; i++) {
+            final Point2D point = myTrack.getPointAtDistance(theLapDistance * i / theSteps);
+            myPointsX[i] = point.getX();
+            myPointsY[i] = point.getY();
         }
     }
     
     /**
-     * Helper method which initializes a new Ellipse2D circle at specified 
-     * race distance.
-     * 
-     * @param theDistance the distance the circle should be located
-     * @return a new circle representing a racer at given distance
+     * Sets up the racer slots in their starting positions.
      */
-    private Ellipse2D makeCircle(final double theDistance) {
-        final Point2D newPoint = myTrack.getPointAtDistance(theDistance);
-        return new Ellipse2D.Double(newPoint.getX() - OVAL_SIZE / 2,
-                                    newPoint.getY() - OVAL_SIZE / 2,
-                                    OVAL_SIZE, OVAL_SIZE);
+    private void racerStartingPositions() {
+        mySlots = new RacerSlot[myRacers.size()];   // clear previous race loads
+        myDirtySlots = new int[mySlots.length];
+        myDirtyCount = 0;
+        myLastTimes = new int[mySlots.length];
+        myLastDistances = new double[mySlots.length];
+        myPriorTimes = new int[mySlots.length];
+        myPriorDistances = new double[mySlots.length];
+        mySprites = new Image[mySlots.length];
+        for (int i = 0; i < mySlots.length; i++) {
+            myLastTimes[i] = NO_SAMPLE;
+            myPriorTimes[i] = NO_SAMPLE;
+            myLastDistances[i] = myRacers.get(i).getStartDistance();
+            mySlots[i] = new RacerSlot(myColors[i]);
+            mySlots[i].place(myLastDistances[i]);
+        }
     }
     
     /**
-     * Paints the VisibleTrack with all racer circles.
+     * Paints the VisibleTrack with the racer circles inside the area being painted.
      * 
      * @param theGraphics the graphics context to use for painting
      */
     @Override
     public void paintComponent(final Graphics theGraphics) {
-        super.paintComponent(theGraphics);
-        final Graphics2D g2d = (Graphics2D) theGraphics;
+        if (myTrack == null) {
+            super.paintComponent(theGraphics);
+        } else {
+            final Graphics2D g2d = (Graphics2D) theGraphics;
+            final GraphicsConfiguration config = g2d.getDeviceConfiguration();
+            if (myTrackLayer == null || myTrackLayer.getWidth(null) != getWidth()
+                || myTrackLayer.getHeight(null) != getHeight()) {
+                myTrackLayer = drawTrackLayer(config);
+            }
+            g2d.drawImage(myTrackLayer, 0, 0, null);
+
+            final Rectangle clip = g2d.getClipBounds();
+            for (int i = 0; i < mySlots.length; i++) {
+                final int x = (int) Math.round(mySlots[i].myX) - 1;
+                final int y = (int) Math.round(mySlots[i].myY) - 1;
+                if (clip == null || clip.intersects(x, y, SPRITE_SIZE, SPRITE_SIZE)) {
+                    // Now paint the racer specific circle in the racer's color
+                    if (mySprites[i] == null) {
+                        mySprites[i] = drawSprite(config, mySlots[i].myColor);
+                    }
+                    g2d.drawImage(mySprites[i], x, y, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws the background and the track into an image the size of this panel.
+     *
+     * @param theConfig the configuration of the device the panel is painted on
+     * @return the image of the background and track
+     */
+    private Image drawTrackLayer(final GraphicsConfiguration theConfig) {
+        final int width = Math.max(1, getWidth());
+        final int height = Math.max(1, getHeight());
+        final Image layer = createImage(theConfig, width, height, Transparency.OPAQUE);
+        final Graphics2D g2d = (Graphics2D) layer.getGraphics();
+        g2d.setPaint(getBackground());
+        g2d.fillRect(0, 0, width, height);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                             RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setPaint(Color.BLACK);
+        g2d.setStroke(TRACK_STROKE);
+        g2d.draw(myTrack);
+        g2d.dispose();
+        return layer;
+    }
+
+    /**
+     * Draws a racer's circle in a color into an image with a clear background.
+     *
+     * @param theConfig the configuration of the device the panel is painted on
+     * @param theColor the racer's color
+     * @return the image of the circle
+     */
+    private static Image drawSprite(final GraphicsConfiguration theConfig,
+                                    final Color theColor) {
+        final Image sprite = createImage(theConfig, SPRITE_SIZE, SPRITE_SIZE,
+                                         Transparency.TRANSLUCENT);
+        final Graphics2D g2d = (Graphics2D) sprite.getGraphics();
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
                              RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setPaint(theColor);
+        g2d.fill(new Ellipse2D.Double(1, 1, OVAL_SIZE, OVAL_SIZE));
+        g2d.dispose();
+        return sprite;
+    }
 
-        if (myTrack != null) {
-            g2d.setPaint(Color.BLACK);
-            g2d.setStroke(new BasicStroke(STROKE_WIDTH));
-            g2d.draw(myTrack);
-            
-            g2d.setStroke(new BasicStroke(1));
-            for (final Racer r : myRacerCircleMap.keySet()) {
-                // Set the color to racer's individual color
-                g2d.setPaint(myRacerColorMap.get(r));
-                // Now paint the racer specific circle
-                g2d.fill(myRacerCircleMap.get(r));
+    /**
+     * Creates an image the device can copy quickly, or a plain image without a device.
+     *
+     * @param theConfig the configuration of the device, or null
+     * @param theWidth the width of the image
+     * @param theHeight the height of the image
+     * @param theTransparency the transparency of the image
+     * @return a new image
+     */
+    private static Image createImage(final GraphicsConfiguration theConfig,
+                                     final int theWidth, final int theHeight,
+                                     final int theTransparency) {
+        final Image image;
+        if (theConfig == null) {
+            image = new BufferedImage(theWidth, theHeight, BufferedImage.TYPE_INT_ARGB);
+        } else {
+            image = theConfig.createCompatibleImage(theWidth, theHeight, theTransparency);
+        }
+        return image;
+    }
+    
+    @Override
+    public void headerLoaded(final RaceHeader theHeader) {
+        if (theHeader == null) {
+            myTrack = null;
+            myTrackLayer = null;
+        } else {
+            setupComponents(theHeader);
+        }
+        racerStartingPositions();
+        repaint();
+    }
+    
+    @Override
+    public void messagesSent(final MessageBatch theMessages) {
+        // every sample of the batch marks its racer, the next frame repaints them
+        for (final Message m : theMessages) {
+            m.accept(myMover);
+        }
+        startFrame();
+    }
+    
+    /**
+     * {@inheritDoc}
+     * Racers still moving between samples are marked dirty, to be placed at the
+     * new time by the next frame.
+     */
+    @Override
+    public void timeChanged(final int theTime) {
+        final int old = myTime;
+        myTime = theTime;
+        for (int i = 0; i < mySlots.length; i++) {
+            // a racer moves until one sample interval past its latest sample
+            if (myPriorTimes[i] != NO_SAMPLE
+                && Math.min(old, theTime) < 2 * myLastTimes[i] - myPriorTimes[i]) {
+                markDirty(i);
             }
         }
+        startFrame();
     }
     
+    /**
+     * {@inheritDoc}
+     * Every racer's sample times are forgotten, so no racer extrapolates across the
+     * jump; each stays where it is now until its next sample.
+     */
     @Override
-    public void propertyChange(final PropertyChangeEvent theEvent) {
+    public void timeSought(final int theTime) {
+        for (int i = 0; i < mySlots.length; i++) {
+            if (myPriorTimes[i] != NO_SAMPLE) {
+                markDirty(i);
+            }
+            myLastDistances[i] = distanceAt(i, myTime);
+            myLastTimes[i] = NO_SAMPLE;
+            myPriorTimes[i] = NO_SAMPLE;
+        }
+    }
+    
+    /**
+     * Starts the frame timer if any slot is dirty and no frame is waiting.
+     */
+    private void startFrame() {
+        if (myDirtyCount > 0 && !myFrameTimer.isRunning()) {
+            myFrameTimer.start();
+        }
+    }
+    
+    /**
+     * Records a racer's telemetry sample as its latest. A sample no later than the
+     * latest, or the first after a seek, starts the racer's history over.
+     * 
+     * @param theMessage the telemetry message
+     */
+    private void moveRacer(final TelemetryMessage theMessage) {
+        final int racer = myRacers.indexOf(theMessage.getID());
+        if (racer != RacerRegistry.NONE) {
+            if (myLastTimes[racer] != NO_SAMPLE && theMessage.getTime() > myLastTimes[racer]) {
+                myPriorTimes[racer] = myLastTimes[racer];
+                myPriorDistances[racer] = myLastDistances[racer];
+            } else {
+                myPriorTimes[racer] = NO_SAMPLE;
+            }
+            myLastTimes[racer] = theMessage.getTime();
+            // laps are counted in, so a racer crossing the line keeps moving forward
+            myLastDistances[racer] = theMessage.getLap() * myLapDistance + theMessage.getDist();
+            markDirty(racer);
+        }
+    }
+    
+    /**
+     * Stops a finished racer where its latest sample put it.
+     * 
+     * @param theMessage the line crossing message
+     */
+    private void finishRacer(final CrossingMessage theMessage) {
+        final int racer = myRacers.indexOf(theMessage.getID());
+        if (racer != RacerRegistry.NONE && theMessage.isFinished()) {
+            myPriorTimes[racer] = NO_SAMPLE;
+            markDirty(racer);
+        }
+    }
+    
+    /**
+     * Adds a racer's slot to the slots the next frame places, if it is not already.
+     * 
+     * @param theRacer the racer index
+     */
+    private void markDirty(final int theRacer) {
+        if (!mySlots[theRacer].myDirty) {
+            mySlots[theRacer].myDirty = true;
+            myDirtySlots[myDirtyCount] = theRacer;
+            myDirtyCount++;
+        }
+    }
+    
+    /**
+     * Returns a racer's distance at a race time, extrapolated from its last two
+     * samples for at most one sample interval past the latest. A racer with only
+     * one sample stays where it put the racer.
+     * 
+     * @param theRacer the racer index
+     * @param theTime the race time
+     * @return the racer's distance
+     */
+    private double distanceAt(final int theRacer, final int theTime) {
+        double distance = myLastDistances[theRacer];
+        if (myPriorTimes[theRacer] != NO_SAMPLE) {
+            final int interval = myLastTimes[theRacer] - myPriorTimes[theRacer];
+            final int ahead = Math.max(0, Math.min(theTime - myLastTimes[theRacer], interval));
+            distance += (myLastDistances[theRacer] - myPriorDistances[theRacer])
+                        * ahead / interval;
+        }
+        return distance;
+    }
+    
+    /**
+     * Places every dirty slot at its racer's distance at the model time, and repaints 
+     * the regions around their old and new positions.
+     */
+    private void repaintDirtySlots() {
+        for (int i = 0; i < myDirtyCount; i++) {
+            final RacerSlot slot = mySlots[myDirtySlots[i]];
+            repaintSlot(slot);
+            slot.place(distanceAt(myDirtySlots[i], myTime));
+            repaintSlot(slot);
+            slot.myDirty = false;
+        }
+        myDirtyCount = 0;
+    }
+
+    /**
+     * Repaints the region a racer's circle is painted in, with a pixel to spare
+     * for antialiased edges.
+     *
+     * @param theSlot the racer's slot
+     */
+    private void repaintSlot(final RacerSlot theSlot) {
+        repaint((int) Math.floor(theSlot.myX) - 1, (int) Math.floor(theSlot.myY) - 1,
+                OVAL_SIZE + 3, OVAL_SIZE + 3);
+    }
+
+    /**
+     * Holds where one racer's circle is on the track, which follows the racer's 
+     * distance once a frame.
+     */
+    private final class RacerSlot {
+
+        /** The racer's color. */
+        private final Color myColor;
+
+        /** The x coordinate the racer's circle is painted at. */
+        private double myX;
+
+        /** The y coordinate the racer's circle is painted at. */
+        private double myY;
+
+        /** Holds whether the distance may have changed since the circle was placed. */
+        private boolean myDirty;
+
+        /**
+         * Constructs a slot, not yet placed.
+         *
+         * @param theColor the racer's color
+         */
+        private RacerSlot(final Color theColor) {
+            myColor = theColor;
+        }
+
+        /**
+         * Places the circle around the point on the track at a distance,
+         * interpolated between the two nearest points of the track table.
+         *
+         * @param theDistance the racer's distance
+         */
+        private void place(final double theDistance) {
+            final int steps = myPointsX.length - 1;
+            final double lap = theDistance / myLapDistance;
+            final double step = (lap - Math.floor(lap)) * steps;
+            final int i = Math.min((int) step, steps - 1);
+            final double t = step - i;
+            myX = myPointsX[i] + t * (myPointsX[i + 1] - myPointsX[i]) - OVAL_SIZE / 2;
+            myY = myPointsY[i] + t * (myPointsY[i + 1] - myPointsY[i]) - OVAL_SIZE / 2;
+        }
+    }
+
+    /**
+     * Records telemetry samples and finishes for the messages it visits, and ignores
+     * other messages.
+     */
+    private final class RacerMover implements MessageVisitor {
         
-        if (PROPERTY_HEADER_INFO.equals(theEvent.getPropertyName())) {
-            final RaceHeader header = (RaceHeader) theEvent.getNewValue();
-            setupComponents(header);
-            racerStartingPositions();
+        @Override
+        public void visitTelemetry(final TelemetryMessage theMessage) {
+            moveRacer(theMessage);
         }
         
-        if (PROPERTY_NEW_MESSAGES.equals(theEvent.getPropertyName())) {
-            final Message m = (Message) theEvent.getNewValue();
-            if (Message.TELEM_START.equals(m.getType())) {                
-                // If the message is telemetry data, check the message ID
-                // against all my racer IDs. If the message is for one of my
-                // racers, update their circle to new location specified by message
-                final TelemetryMessage telem = (TelemetryMessage) m;
-                final int telemID = telem.getID();
-                for (final Racer r : myRacerCircleMap.keySet()) {
-                    if (telemID == r.getID()) {
-                        myRacerCircleMap.put(r, makeCircle(telem.getDist()));
-                    }
-                }
-            }
+        @Override
+        public void visitCrossing(final CrossingMessage theMessage) {
+            finishRacer(theMessage);
         }
         
-        repaint();
+        @Override
+        public void visitLeaderboard(final LeaderboardMessage theMessage) {
+            // leaderboards do not move racers
+        }
     }
     
 